@@ -0,0 +1,76 @@
+package com.minesweeper.api.benchmark;
+
+import com.minesweeper.api.model.Board;
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board generation, cell lookup, worst-case flood fill and bomb counting over board sizes from beginner to
+ * 1000x1000. Run with {@code -prof gc} to get allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({ BoardSize.SMALL, BoardSize.EXPERT, BoardSize.LARGE, BoardSize.HUGE, BoardSize.MAXIMUM })
+    public String board;
+
+    private MineSweeper mineSweeper;
+
+    private MineSweeper emptyGame;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setupGames() {
+        this.mineSweeper = BoardSize.newGame(this.board);
+
+        // A single bomb in a corner: one click on the opposite corner reveals every other cell
+        final Board empty = new Board(this.mineSweeper.getRows(), this.mineSweeper.getColumns());
+        empty.placeBomb(0);
+        this.emptyGame = MineSweeper.builder().status(Status.ACTIVE).rows(empty.getRows())
+                .columns(empty.getColumns()).bombs(1).board(empty).build();
+    }
+
+    @Benchmark
+    public MineSweeper initCells() {
+        return BoardSize.newGame(this.board);
+    }
+
+    @Benchmark
+    public Cell getCell() {
+        return this.mineSweeper.getCell(this.random.nextInt(this.mineSweeper.getRows()),
+                this.random.nextInt(this.mineSweeper.getColumns()));
+    }
+
+    /**
+     * A board can only be revealed once, so every call fills a fresh copy of the empty game. Setting up a board per
+     * invocation would time JMH's own bookkeeping along with the shorter fills; {@link #copyEmptyGame()} gives the
+     * cost of the copy to subtract instead.
+     */
+    @Benchmark
+    public Status recognizeCellWorstCaseFloodFill() {
+        final MineSweeper game = this.emptyGame.copy();
+        game.recognizeCell(game.getRows() - 1, game.getColumns() - 1);
+        return game.getStatus();
+    }
+
+    @Benchmark
+    public MineSweeper copyEmptyGame() {
+        return this.emptyGame.copy();
+    }
+
+    @Benchmark
+    public Integer bombsAmount() {
+        return this.mineSweeper.bombsAmount();
+    }
+}
@@ -0,0 +1,28 @@
+package com.minesweeper.api.benchmark;
+
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+
+/**
+ * Parses the {@code rows x columns x bombs} board parameter shared by the benchmarks.
+ */
+final class BoardSize {
+
+    static final String SMALL = "9x9x10";
+    static final String EXPERT = "16x30x99";
+    static final String LARGE = "100x100x1500";
+    static final String HUGE = "500x500x40000";
+    static final String MAXIMUM = "1000x1000x150000";
+
+    private BoardSize() {
+    }
+
+    static MineSweeper newGame(final String size) {
+        final String[] parts = size.split("x");
+        final MineSweeper mineSweeper = MineSweeper.builder().id("benchmark").userId("benchmark")
+                .status(Status.ACTIVE).rows(Integer.parseInt(parts[0])).columns(Integer.parseInt(parts[1]))
+                .bombs(Integer.parseInt(parts[2])).build();
+        mineSweeper.initCells();
+        return mineSweeper;
+    }
+}
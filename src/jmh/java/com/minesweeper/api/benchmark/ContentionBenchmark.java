@@ -0,0 +1,84 @@
+package com.minesweeper.api.benchmark;
+
+import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.service.cache.GameSessionCache;
+import com.minesweeper.api.service.event.GameEventPublisher;
+import com.minesweeper.api.service.impl.MineSweeperServiceImpl;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import com.minesweeper.api.service.movelog.MoveLog;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent flag moves through {@link MineSweeperServiceImpl}, either all on one hot game or spread over many.
+ * Writes go to a versioned in-memory store, so it measures lock contention and optimistic retries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ContentionBenchmark {
+
+    @Param({ "1", "64" })
+    public int games;
+
+    @Param({ BoardSize.EXPERT, BoardSize.LARGE })
+    public String board;
+
+    private MineSweeperServiceImpl mineSweeperService;
+
+    private GameLockRegistry gameLockRegistry;
+
+    private MineSweeper template;
+
+    @State(Scope.Thread)
+    public static class Player {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InMemoryMineSweeperRepository repository = new InMemoryMineSweeperRepository(Benchmarks.tableModel());
+        this.gameLockRegistry = new GameLockRegistry(256, false);
+
+        this.mineSweeperService = new MineSweeperServiceImpl();
+        ReflectionTestUtils.setField(this.mineSweeperService, "mineSweeperRepository", repository);
+        ReflectionTestUtils.setField(this.mineSweeperService, "gameLockRegistry", this.gameLockRegistry);
+        ReflectionTestUtils.setField(this.mineSweeperService, "gameSessionCache",
+                new GameSessionCache(repository, this.gameLockRegistry, false, 1, Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(this.mineSweeperService, "gameEventPublisher",
+                new GameEventPublisher(64, Duration.ofMinutes(1), 1));
+        ReflectionTestUtils.setField(this.mineSweeperService, "moveLog", new MoveLog(null, false, 50));
+        ReflectionTestUtils.setField(this.mineSweeperService, "maxAttempts", 3);
+
+        this.template = BoardSize.newGame(this.board);
+        for (int i = 0; i < this.games; i++) {
+            MineSweeper mineSweeper = BoardSize.newGame(this.board);
+            mineSweeper.setId(String.valueOf(i));
+            repository.save(mineSweeper);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println(this.gameLockRegistry.getStatistics());
+    }
+
+    @Benchmark
+    public MineSweeper flag(final Player player) {
+        CellRequest cellRequest = CellRequest.builder()
+                .mineSweeperId(String.valueOf(player.random.nextInt(this.games)))
+                .x(player.random.nextInt(this.template.getRows()))
+                .y(player.random.nextInt(this.template.getColumns())).build();
+        return this.mineSweeperService.cellAction(cellRequest, CellAction.FLAG);
+    }
+}
@@ -0,0 +1,143 @@
+package com.minesweeper.api.benchmark;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.repository.MineSweeperRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps games as marshalled DynamoDB items and checks their version on save the way the mapper's conditional writes
+ * do, so benchmarks exercise marshalling and optimistic concurrency without a network round trip. A latency can be
+ * added to reads and writes, blocking the caller as a DynamoDB round trip would.
+ */
+class InMemoryMineSweeperRepository implements MineSweeperRepository {
+
+    private final DynamoDBMapperTableModel<MineSweeper> tableModel;
+    private Duration latency;
+    private final Map<String, Map<String, AttributeValue>> items = new ConcurrentHashMap<>();
+
+    InMemoryMineSweeperRepository(final DynamoDBMapperTableModel<MineSweeper> tableModel) {
+        this(tableModel, Duration.ZERO);
+    }
+
+    InMemoryMineSweeperRepository(final DynamoDBMapperTableModel<MineSweeper> tableModel, final Duration latency) {
+        this.tableModel = tableModel;
+        this.latency = latency;
+    }
+
+    void setLatency(final Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public <S extends MineSweeper> S save(final S mineSweeper) {
+        this.roundTrip();
+        this.items.compute(mineSweeper.getId(), (id, stored) -> {
+            Long storedVersion = stored == null ? null : Long.valueOf(stored.get("version").getN());
+            if (!Objects.equals(storedVersion, mineSweeper.getVersion())) {
+                throw new ConditionalCheckFailedException("The conditional request failed");
+            }
+            mineSweeper.setVersion(storedVersion == null ? 1L : storedVersion + 1);
+            return this.tableModel.convert(mineSweeper);
+        });
+        return mineSweeper;
+    }
+
+    @Override
+    public <S extends MineSweeper> Iterable<S> saveAll(final Iterable<S> mineSweepers) {
+        mineSweepers.forEach(this::save);
+        return mineSweepers;
+    }
+
+    @Override
+    public Optional<MineSweeper> findById(final String id) {
+        this.roundTrip();
+        return Optional.ofNullable(this.items.get(id)).map(this.tableModel::unconvert);
+    }
+
+    @Override
+    public boolean existsById(final String id) {
+        return this.items.containsKey(id);
+    }
+
+    @Override
+    public Iterable<MineSweeper> findAll() {
+        List<MineSweeper> mineSweepers = new ArrayList<>();
+        this.items.values().forEach(item -> mineSweepers.add(this.tableModel.unconvert(item)));
+        return mineSweepers;
+    }
+
+    @Override
+    public Iterable<MineSweeper> findAllById(final Iterable<String> ids) {
+        List<MineSweeper> mineSweepers = new ArrayList<>();
+        ids.forEach(id -> this.findById(id).ifPresent(mineSweepers::add));
+        return mineSweepers;
+    }
+
+    @Override
+    public long count() {
+        return this.items.size();
+    }
+
+    @Override
+    public void deleteById(final String id) {
+        this.items.remove(id);
+    }
+
+    @Override
+    public void delete(final MineSweeper mineSweeper) {
+        this.items.remove(mineSweeper.getId());
+    }
+
+    @Override
+    public void deleteAll(final Iterable<? extends MineSweeper> mineSweepers) {
+        mineSweepers.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        this.items.clear();
+    }
+
+    @Override
+    public List<MineSweeper> getMineSweepersByUserId(final String userId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MineSweeperPage findPageByUserId(final String userId, final String cursor, final int limit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MineSweeperSummaryPage findSummaryPageByUserId(final String userId, final String cursor, final int limit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<MineSweeper> findVersionById(final String mineSweeperId) {
+        return this.findById(mineSweeperId);
+    }
+
+    private void roundTrip() {
+        if (this.latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(this.latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.minesweeper.api.benchmark;
+
+import com.minesweeper.api.ApiApplication;
+import com.minesweeper.api.config.VirtualThreads;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.repository.MineSweeperRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compares the request execution models under load: the API is started once per mode, over games kept in memory
+ * with a simulated DynamoDB round trip on every read and write, and {@code clients} closed-loop clients flag cells
+ * of their own game ({@code PUT /minesweeper/cell/flag/delta}, a read and a write, with a small response so the
+ * comparison is not dominated by the response size) for the given time. Throughput and latency percentiles are
+ * reported per mode. The virtual mode is skipped when not running on Java 21.
+ * <p>
+ * Arguments: {@code clients seconds latencyMillis}, 800 clients for 30 seconds with a 20 ms round trip by default.
+ */
+public final class LoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private LoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int clients = args.length > 0 ? Integer.parseInt(args[0]) : 800;
+        final Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        final Duration latency = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 20);
+
+        final List<String> results = new ArrayList<>();
+        for (String mode : new String[] { "platform", "virtual" }) {
+            if (mode.equals("virtual") && !VirtualThreads.isAvailable()) {
+                results.add(String.format("%-9s skipped, virtual threads need Java 21 (running %s)", mode,
+                        System.getProperty("java.version")));
+                continue;
+            }
+            results.add(run(mode, clients, duration, latency));
+        }
+
+        System.out.printf("%n%d clients, %d s, %d ms per DynamoDB round trip%n", clients, duration.toSeconds(),
+                latency.toMillis());
+        System.out.printf("%-9s %10s %10s %10s %10s %10s %10s%n", "mode", "requests", "req/s", "p50 ms",
+                "p99 ms", "p99.9 ms", "errors");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(final String mode, final int clients, final Duration duration, final Duration latency)
+            throws InterruptedException {
+        final InMemoryMineSweeperRepository repository = new InMemoryMineSweeperRepository(Benchmarks.tableModel());
+        final List<String> games = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            final MineSweeper mineSweeper = MineSweeper.builder().id("load-" + i).status(Status.ACTIVE).rows(16)
+                    .columns(30).bombs(99).build();
+            mineSweeper.initCells();
+            repository.save(mineSweeper);
+            games.add(mineSweeper.getId());
+        }
+        repository.setLatency(latency);
+
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class)
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(
+                        "loadTestRepository", MineSweeperRepository.class, () -> repository,
+                        definition -> definition.setPrimary(true)))
+                .properties("server.port=0", "minesweeper.execution.mode=" + mode,
+                        "minesweeper.board-pool.enabled=false", "logging.level.root=WARN",
+                        "amazon.aws.accesskey=load", "amazon.aws.secretkey=load")
+                .run();
+        try {
+            final String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/minesweeper/cell/flag/delta";
+            return String.format("%-9s %s", mode, load(url, games, duration));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result load(final String url, final List<String> games, final Duration duration)
+            throws InterruptedException {
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        final long start = System.nanoTime();
+        final long measureFrom = start + WARMUP.toNanos();
+        final long end = measureFrom + duration.toNanos();
+
+        final Result[] results = new Result[games.size()];
+        final CountDownLatch done = new CountDownLatch(games.size());
+        for (int i = 0; i < games.size(); i++) {
+            final int worker = i;
+            final HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"mineSweeperId\":\"" + games.get(i) + "\",\"x\":0,\"y\":0}"))
+                    .build();
+            final Thread thread = new Thread(() -> {
+                final Result result = new Result();
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    if (now >= measureFrom) {
+                        result.record(System.nanoTime() - now, status == 200);
+                    }
+                }
+                results[worker] = result;
+                done.countDown();
+            }, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        final Result total = new Result();
+        Arrays.stream(results).forEach(total::merge);
+        total.seconds = duration.toNanos() / 1e9;
+        return total;
+    }
+
+    private static class Result {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private double seconds;
+
+        void record(final long nanos, final boolean ok) {
+            if (!ok) {
+                this.errors++;
+                return;
+            }
+            if (this.count == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+            }
+            this.latencies[this.count++] = nanos;
+        }
+
+        void merge(final Result other) {
+            for (int i = 0; i < other.count; i++) {
+                this.record(other.latencies[i], true);
+            }
+            this.errors += other.errors;
+        }
+
+        @Override
+        public String toString() {
+            final long[] sorted = Arrays.copyOf(this.latencies, this.count);
+            Arrays.sort(sorted);
+            return String.format("%10d %10.0f %10.1f %10.1f %10.1f %10d", this.count, this.count / this.seconds,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999), this.errors);
+        }
+
+        private static double percentile(final long[] sorted, final double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.minesweeper.api.benchmark;
+
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.service.replay.RecordedGame;
+import com.minesweeper.api.service.replay.ReplayEngine;
+import com.minesweeper.api.service.replay.ReplayResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the game core: recorded games are played again from their seed and moves and checked against their
+ * final state, on a fork-join pool of {@code parallelism} threads (0 for one per core).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplayBenchmark {
+
+    private static final int GAMES = 2000;
+    private static final int MAX_MOVES = 200;
+
+    @Param({ BoardSize.EXPERT, BoardSize.LARGE })
+    public String board;
+
+    @Param({ "1", "0" })
+    public int parallelism;
+
+    private ReplayEngine replayEngine;
+
+    private List<RecordedGame> games;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.replayEngine = new ReplayEngine(this.parallelism);
+        this.games = new ArrayList<>(GAMES);
+        for (long seed = 0; seed < GAMES; seed++) {
+            this.games.add(record(this.board, seed));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.replayEngine.shutdown();
+    }
+
+    /**
+     * Verifies {@value #GAMES} games per operation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public List<ReplayResult> verifyAll() {
+        return this.replayEngine.verifyAll(this.games);
+    }
+
+    private static RecordedGame record(final String size, final long seed) {
+        final MineSweeper game = BoardSize.newGame(size);
+        final SplittableRandom random = new SplittableRandom(seed);
+        final List<GameMove> moves = new ArrayList<>();
+        while (game.getStatus().equals(Status.ACTIVE) && moves.size() < MAX_MOVES) {
+            final GameMove move = GameMove.builder().gameId(game.getId()).seq(game.getMoves() + 1)
+                    .x(random.nextInt(game.getRows())).y(random.nextInt(game.getColumns()))
+                    .action(random.nextInt(5) == 0 ? CellAction.FLAG : CellAction.CLICK).build();
+            game.replay(move);
+            moves.add(move);
+        }
+        return RecordedGame.builder().game(game).moves(moves).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.minesweeper.api.benchmark;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minesweeper.api.dto.BoardEncoding;
+import com.minesweeper.api.dto.CompactMineSweeper;
+import com.minesweeper.api.model.MineSweeper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a full game, as the load and move endpoints respond, against the cell list it used to be
+ * written from and the compact encodings, and DynamoDB marshalling of the game item (board included) in both
+ * directions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ BoardSize.SMALL, BoardSize.EXPERT, BoardSize.LARGE, BoardSize.HUGE, BoardSize.MAXIMUM })
+    public String board;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DynamoDBMapperTableModel<MineSweeper> tableModel;
+
+    private MineSweeper mineSweeper;
+
+    private Map<String, AttributeValue> item;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.tableModel = Benchmarks.tableModel();
+        this.mineSweeper = BoardSize.newGame(this.board);
+        this.item = this.tableModel.convert(this.mineSweeper);
+    }
+
+    @Benchmark
+    public byte[] jacksonFullGame() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.mineSweeper);
+    }
+
+    @Benchmark
+    public byte[] jacksonCellList() throws JsonProcessingException {
+        // Cells built and introspected as beans, as the full game was written before the streaming serializer
+        return this.objectMapper.writeValueAsBytes(this.mineSweeper.getCells());
+    }
+
+    @Benchmark
+    public byte[] jacksonCompactRows() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(CompactMineSweeper.of(this.mineSweeper, BoardEncoding.ROWS));
+    }
+
+    @Benchmark
+    public byte[] jacksonCompactBitmap() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(CompactMineSweeper.of(this.mineSweeper, BoardEncoding.BITMAP));
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> dynamoDBMarshal() {
+        return this.tableModel.convert(this.mineSweeper);
+    }
+
+    @Benchmark
+    public MineSweeper dynamoDBUnmarshal() {
+        return this.tableModel.unconvert(this.item);
+    }
+}
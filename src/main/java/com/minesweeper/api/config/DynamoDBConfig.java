@@ -1,14 +1,23 @@
 package com.minesweeper.api.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.PredefinedBackoffStrategies;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.minesweeper.api.repository.MineSweeperRepository;
 import org.socialsignin.spring.data.dynamodb.repository.config.EnableDynamoDBRepositories;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
 
 @Configuration
 @EnableDynamoDBRepositories(basePackageClasses = MineSweeperRepository.class)
@@ -20,11 +29,65 @@ public class DynamoDBConfig {
     @Value("${amazon.aws.accesskey}")
     private String accessKey;
 
+    @Value("${amazon.aws.region:us-east-1}")
+    private String region;
+
+    // DynamoDB Local or any other endpoint, the region endpoint is used when empty
+    @Value("${amazon.dynamodb.endpoint:}")
+    private String endpoint;
+
+    @Value("${amazon.dynamodb.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${amazon.dynamodb.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Value("${amazon.dynamodb.connection-timeout:PT1S}")
+    private Duration connectionTimeout;
+
+    @Value("${amazon.dynamodb.socket-timeout:PT2S}")
+    private Duration socketTimeout;
+
+    @Value("${amazon.dynamodb.request-timeout:PT3S}")
+    private Duration requestTimeout;
+
+    @Value("${amazon.dynamodb.max-error-retry:3}")
+    private int maxErrorRetry;
+
+    @Value("${amazon.dynamodb.backoff-base-delay:PT0.025S}")
+    private Duration backoffBaseDelay;
+
+    @Value("${amazon.dynamodb.backoff-max-delay:PT1S}")
+    private Duration backoffMaxDelay;
+
+    @Bean
+    public AmazonDynamoDB amazonDynamoDB(AWSCredentials awsCredentials, ClientConfiguration dynamoDBClientConfiguration) {
+        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
+                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
+                .withClientConfiguration(dynamoDBClientConfiguration);
+        if (StringUtils.hasText(endpoint)) {
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region));
+        } else {
+            builder.withRegion(region);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Connection pool, timeouts and retries of the DynamoDB client. Retries back off with full jitter, so the
+     * requests throttled together do not all come back at the same time.
+     */
     @Bean
-    public AmazonDynamoDB amazonDynamoDB(AWSCredentials awsCredentials) {
-        @SuppressWarnings("deprecation")
-        AmazonDynamoDB amazonDynamoDB = new AmazonDynamoDBClient(awsCredentials);
-        return amazonDynamoDB;
+    public ClientConfiguration dynamoDBClientConfiguration() {
+        RetryPolicy retryPolicy = new RetryPolicy(PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION,
+                new PredefinedBackoffStrategies.FullJitterBackoffStrategy((int) backoffBaseDelay.toMillis(),
+                        (int) backoffMaxDelay.toMillis()),
+                maxErrorRetry, true);
+        return new ClientConfiguration().withMaxConnections(maxConnections).withTcpKeepAlive(tcpKeepAlive)
+                .withConnectionTimeout((int) connectionTimeout.toMillis())
+                .withSocketTimeout((int) socketTimeout.toMillis())
+                .withRequestTimeout((int) requestTimeout.toMillis())
+                .withRetryPolicy(retryPolicy).withMaxErrorRetry(maxErrorRetry);
     }
 
     @Bean
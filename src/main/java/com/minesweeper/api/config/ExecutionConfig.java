@@ -0,0 +1,28 @@
+package com.minesweeper.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request execution model. By default Tomcat runs requests on its pool of platform threads ({@code
+ * server.tomcat.threads.max}), which stay blocked while the game is read and written, so the pool size caps the
+ * requests in flight. With {@code minesweeper.execution.mode=virtual} every request runs on its own virtual thread
+ * instead: a request waiting on DynamoDB releases its carrier thread, and concurrency is only bounded by the
+ * connections Tomcat accepts and the DynamoDB connection pool. Game locks are {@link
+ * java.util.concurrent.locks.ReentrantLock}s, which do not pin the carrier thread while waiting.
+ */
+@Configuration
+@Slf4j
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "minesweeper.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        log.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor());
+    }
+}
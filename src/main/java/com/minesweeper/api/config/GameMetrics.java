@@ -0,0 +1,156 @@
+package com.minesweeper.api.config;
+
+import com.minesweeper.api.model.Board;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.MineSweeper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers and distributions of the game hot paths: board generation, flood fills, board encoding, response
+ * serialization, moves and repository calls. Every meter is tagged with the {@link #sizeBucket board size bucket}, so
+ * the latency percentiles and the stored bytes can be broken down by the board sizes that drive them.
+ * <p>
+ * Board converters and serializers are not Spring beans, so meters are registered in Micrometer's global registry,
+ * which Spring Boot binds to the application registries (Prometheus included). Nothing is recorded when no registry
+ * is bound. Every tag is drawn from a small fixed set, so the meters are registered once and then looked up by their
+ * tags, instead of building and registering them again on every move.
+ */
+public final class GameMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not_found";
+    public static final String CONFLICT = "conflict";
+    public static final String UNCHANGED = "unchanged";
+    public static final String REJECTED = "rejected";
+    public static final String ERROR = "error";
+
+    private static final String SIZE = "size";
+    private static final String UNKNOWN = "unknown";
+
+    private static final MeterRegistry REGISTRY = Metrics.globalRegistry;
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, DistributionSummary> SUMMARIES = new ConcurrentHashMap<>();
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Bounded set of board sizes, named after the presets they contain, so the tag never explodes into one series per
+     * board dimension.
+     */
+    public static String sizeBucket(final long cells) {
+        if (cells <= 0) {
+            return UNKNOWN;
+        }
+        if (cells <= 81) {
+            return "beginner";
+        }
+        if (cells <= 256) {
+            return "intermediate";
+        }
+        if (cells <= 480) {
+            return "expert";
+        }
+        if (cells <= 10_000) {
+            return "large";
+        }
+        if (cells <= 250_000) {
+            return "huge";
+        }
+        return "maximum";
+    }
+
+    public static String sizeBucket(final MineSweeper mineSweeper) {
+        return mineSweeper != null ? sizeBucket((long) mineSweeper.getRows() * mineSweeper.getColumns()) : UNKNOWN;
+    }
+
+    public static void recordInitCells(final MineSweeper mineSweeper, final long nanos) {
+        final String size = sizeBucket(mineSweeper);
+        timer("minesweeper.board.generation", size, null, null, () -> Timer.builder("minesweeper.board.generation")
+                .description("Bomb placement of a new board").tag(SIZE, size))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordReveal(final MineSweeper mineSweeper, final CellAction action, final int cells,
+                                    final long nanos) {
+        final String size = sizeBucket(mineSweeper);
+        final String actionName = action.name().toLowerCase();
+        timer("minesweeper.reveal", size, actionName, null, () -> Timer.builder("minesweeper.reveal")
+                .description("Flood fill of a click or chord").tags(SIZE, size, "action", actionName))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        summary("minesweeper.reveal.cells", size, actionName, () -> DistributionSummary
+                .builder("minesweeper.reveal.cells").description("Cells recognized by a click or chord")
+                .baseUnit("cells").tags(SIZE, size, "action", actionName))
+                .record(cells);
+    }
+
+    public static void recordMove(final MineSweeper mineSweeper, final CellAction action, final String outcome,
+                                  final long nanos) {
+        final String size = sizeBucket(mineSweeper);
+        final String actionName = action.name().toLowerCase();
+        timer("minesweeper.moves", size, actionName, outcome, () -> Timer.builder("minesweeper.moves")
+                .description("Cell action applied to a loaded game")
+                .tags(SIZE, size, "action", actionName, "outcome", outcome))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordRepository(final String operation, final MineSweeper mineSweeper, final String outcome,
+                                        final long nanos) {
+        final String size = sizeBucket(mineSweeper);
+        timer("minesweeper.repository", size, operation, outcome, () -> Timer.builder("minesweeper.repository")
+                .description("Game repository calls").tags(SIZE, size, "operation", operation, "outcome", outcome))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The encoded board is by far the biggest attribute of a game item, so its size is what DynamoDB read and write
+     * units scale with.
+     */
+    public static void recordBoardEncoding(final String operation, final Board board, final int bytes,
+                                           final long nanos) {
+        final String size = sizeBucket((long) board.size());
+        timer("minesweeper.board.encoding", size, operation, null, () -> Timer.builder("minesweeper.board.encoding")
+                .description("Binary encoding of the stored board").tags(SIZE, size, "operation", operation))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        summary("minesweeper.board.stored.size", size, operation, () -> DistributionSummary
+                .builder("minesweeper.board.stored.size").description("Bytes of the stored board")
+                .baseUnit("bytes").tags(SIZE, size, "operation", operation))
+                .record(bytes);
+    }
+
+    public static void recordSerialization(final String format, final Board board, final long nanos) {
+        final String size = sizeBucket((long) board.size());
+        timer("minesweeper.board.serialization", size, format, null, () -> Timer
+                .builder("minesweeper.board.serialization").description("JSON serialization of a board")
+                .tags(SIZE, size, "format", format))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(final String name, final String size, final String tag, final String outcome,
+                               final Supplier<Timer.Builder> builder) {
+        final String key = key(name, size, tag, outcome);
+        final Timer timer = TIMERS.get(key);
+        return timer != null ? timer : TIMERS.computeIfAbsent(key, ignored -> builder.get().register(REGISTRY));
+    }
+
+    private static DistributionSummary summary(final String name, final String size, final String tag,
+                                               final Supplier<DistributionSummary.Builder> builder) {
+        final String key = key(name, size, tag, null);
+        final DistributionSummary summary = SUMMARIES.get(key);
+        return summary != null ? summary
+                : SUMMARIES.computeIfAbsent(key, ignored -> builder.get().register(REGISTRY));
+    }
+
+    private static String key(final String name, final String size, final String tag, final String outcome) {
+        return name + '|' + size + '|' + tag + '|' + outcome;
+    }
+}
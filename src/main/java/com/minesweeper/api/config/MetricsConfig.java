@@ -0,0 +1,92 @@
+package com.minesweeper.api.config;
+
+import com.minesweeper.api.service.cache.GameSessionCache;
+import com.minesweeper.api.service.chunk.TileCache;
+import com.minesweeper.api.service.event.GameEventPublisher;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import com.minesweeper.api.service.pool.BoardPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the statistics the caches, locks, board pool and event publisher already keep as meters, next to the game
+ * timers of {@link GameMetrics} and the request timers Spring Boot records per endpoint.
+ * They are read when the registry is scraped, so the hot paths pay nothing for them.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder gameStatisticsMetrics(final GameSessionCache gameSessionCache,
+                                             final GameLockRegistry gameLockRegistry,
+                                             final BoardPool boardPool,
+                                             final GameEventPublisher gameEventPublisher,
+                                             final TileCache tileCache) {
+        return registry -> {
+            counter(registry, "minesweeper.session.cache.hits", gameSessionCache, c -> c.getStatistics().getHits());
+            counter(registry, "minesweeper.session.cache.misses", gameSessionCache, c -> c.getStatistics().getMisses());
+            counter(registry, "minesweeper.session.cache.flushed.games", gameSessionCache,
+                    c -> c.getStatistics().getFlushedGames());
+            counter(registry, "minesweeper.session.cache.flush.failures", gameSessionCache,
+                    c -> c.getStatistics().getFlushFailures());
+            counter(registry, "minesweeper.session.cache.flush.conflicts", gameSessionCache,
+                    c -> c.getStatistics().getFlushConflicts());
+            gauge(registry, "minesweeper.session.cache.size", gameSessionCache, c -> c.getStatistics().getSize());
+            gauge(registry, "minesweeper.session.cache.dirty.games", gameSessionCache,
+                    c -> c.getStatistics().getDirtyGames());
+
+            counter(registry, "minesweeper.locks.acquisitions", gameLockRegistry,
+                    l -> l.getStatistics().getAcquisitions());
+            counter(registry, "minesweeper.locks.contended.acquisitions", gameLockRegistry,
+                    l -> l.getStatistics().getContendedAcquisitions());
+            FunctionCounter.builder("minesweeper.locks.wait", gameLockRegistry,
+                    l -> l.getStatistics().getTotalWaitNanos() / 1e9)
+                    .baseUnit("seconds").register(registry);
+
+            counter(registry, "minesweeper.board.pool.hits", boardPool, p -> p.getStatistics().getHits());
+            counter(registry, "minesweeper.board.pool.misses", boardPool, p -> p.getStatistics().getMisses());
+            counter(registry, "minesweeper.board.pool.refills", boardPool, p -> p.getStatistics().getRefills());
+            for (String preset : boardPool.getPresets()) {
+                Gauge.builder("minesweeper.board.pool.available", boardPool, p -> p.available(preset))
+                        .description("Ready-made games of the preset").tag("preset", preset).register(registry);
+            }
+            // Time from the take that drained a board to the replacement being back in the pool
+            FunctionTimer.builder("minesweeper.board.pool.refill.lag", boardPool,
+                    p -> p.getStatistics().getRefills(), p -> p.getStatistics().getTotalRefillLagNanos(),
+                    TimeUnit.NANOSECONDS).register(registry);
+            TimeGauge.builder("minesweeper.board.pool.refill.lag.max", boardPool, TimeUnit.NANOSECONDS,
+                    p -> p.getStatistics().getMaxRefillLagNanos()).register(registry);
+
+            gauge(registry, "minesweeper.events.subscribers", gameEventPublisher,
+                    p -> p.getStatistics().getSubscribers());
+            counter(registry, "minesweeper.events.published", gameEventPublisher,
+                    p -> p.getStatistics().getPublished());
+            counter(registry, "minesweeper.events.delivered", gameEventPublisher,
+                    p -> p.getStatistics().getDelivered());
+            counter(registry, "minesweeper.events.dropped", gameEventPublisher, p -> p.getStatistics().getDropped());
+            counter(registry, "minesweeper.events.resyncs", gameEventPublisher, p -> p.getStatistics().getResyncs());
+
+            counter(registry, "minesweeper.tiles.cache.hits", tileCache, TileCache::getHits);
+            counter(registry, "minesweeper.tiles.cache.misses", tileCache, TileCache::getMisses);
+        };
+    }
+
+    private static <T> void counter(final MeterRegistry registry, final String name, final T source,
+                                    final ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, source, count).register(registry);
+    }
+
+    private static <T> void gauge(final MeterRegistry registry, final String name, final T source,
+                                  final ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+}
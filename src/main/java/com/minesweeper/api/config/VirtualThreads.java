@@ -0,0 +1,47 @@
+package com.minesweeper.api.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads without raising the Java 11 baseline: the executor factory added in Java 21 is looked up when the
+ * class is loaded, and is only available when running on Java 21 or newer.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null && Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * An executor starting a new virtual thread for every task.
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, running on "
+                    .concat(System.getProperty("java.version")));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Virtual threads could not be started", e);
+        }
+    }
+
+    private static MethodHandle findExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.minesweeper.api.controller;
+
+import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.ChunkedMineSweeperDelta;
+import com.minesweeper.api.dto.ChunkedMineSweeperRequest;
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.chunk.ChunkedMineSweeper;
+import com.minesweeper.api.service.ChunkedMineSweeperService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+
+@CrossOrigin
+@RestController
+@RequestMapping("/minesweeper/chunked")
+@Slf4j
+public class ChunkedController {
+
+    @Autowired
+    private ChunkedMineSweeperService chunkedMineSweeperService;
+
+    @PostMapping("/create")
+    @ResponseStatus(HttpStatus.CREATED)
+    @ApiOperation(value = "Creates new chunked minesweeper's game, for very large or unbounded boards", response = ChunkedMineSweeper.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 201, message = "Game has been created successfully") })
+    public ChunkedMineSweeper createMineSweeper(@RequestBody final ChunkedMineSweeperRequest request){
+        log.info("Creating chunked minesweeper for userId: ".concat(request.getUserId()));
+        return chunkedMineSweeperService.createMineSweeper(request);
+    }
+
+    @GetMapping("/load/{mineSweeperId}")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Load chunked game by Id, without its cells", response = ChunkedMineSweeper.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Game has been loaded successfully") })
+    public ChunkedMineSweeper loadMinesweeper(@PathVariable("mineSweeperId") final String mineSweeperId){
+        log.info("Load chunked minesweeper id: ".concat(mineSweeperId));
+        return chunkedMineSweeperService.getMineSweeperById(mineSweeperId);
+    }
+
+    @GetMapping("/{mineSweeperId}/cells")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Gets the cells of a region of a chunked game, as the player sees them", response = Cell[].class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cells have been retrieved successfully") })
+    public List<Cell> getRegion(@PathVariable("mineSweeperId") final String mineSweeperId,
+                                @RequestParam("x") final int x,
+                                @RequestParam("y") final int y,
+                                @RequestParam(value = "rows", defaultValue = "32") final int rows,
+                                @RequestParam(value = "columns", defaultValue = "32") final int columns) {
+        log.info("Retrieve region of chunked minesweeper id: ".concat(mineSweeperId));
+        return chunkedMineSweeperService.getRegion(mineSweeperId, x, y, rows, columns);
+    }
+
+    @PutMapping("/cell/flag")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Cell's action on a chunked game. FLAG. Responds only with the cells that changed", response = ChunkedMineSweeperDelta.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cell has been flagged/clicked successfully") })
+    public ChunkedMineSweeperDelta flagCellAction(@RequestBody final CellRequest cellRequest){
+        log.info("Flag cell (chunked)");
+        return chunkedMineSweeperService.cellAction(cellRequest, CellAction.FLAG);
+    }
+
+    @PutMapping("/cell/click")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Cell's action on a chunked game. CLICK. Responds only with the cells that changed", response = ChunkedMineSweeperDelta.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cell has been flagged/clicked successfully") })
+    public ChunkedMineSweeperDelta clickCellAction(@RequestBody final CellRequest cellRequest){
+        log.info("Click cell (chunked)");
+        return chunkedMineSweeperService.cellAction(cellRequest, CellAction.CLICK);
+    }
+
+}
@@ -1,20 +1,32 @@
 package com.minesweeper.api.controller;
 
+import com.minesweeper.api.dto.BatchCellRequest;
+import com.minesweeper.api.dto.BatchMoveResponse;
+import com.minesweeper.api.dto.BoardEncoding;
 import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.CompactMineSweeper;
+import com.minesweeper.api.dto.MineSweeperDelta;
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
 import com.minesweeper.api.dto.MineSweeperRequest;
 import com.minesweeper.api.model.CellAction;
 import com.minesweeper.api.model.MineSweeper;
 import com.minesweeper.api.service.MineSweeperService;
+import com.minesweeper.api.service.replay.ReplayResult;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @CrossOrigin
@@ -53,13 +65,85 @@ public class MainController {
         return mineSweeperService.getMinesweepersByUserId(userId);
     }
 
-    @GetMapping("/load/{mineSweeperId}")
+    @GetMapping("/user/{userId}")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Gets a page of minesweeper's games by user Id, most recently updated first. Games are returned without their cells", response = MineSweeperPage.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Games have been retrieved successfully") })
+    public MineSweeperPage getMinesweepersPageByUserId(@PathVariable("userId") final String userId,
+                                                       @RequestParam(value = "cursor", required = false) final String cursor,
+                                                       @RequestParam(value = "limit", defaultValue = "20") final int limit) {
+        log.info("Retrieve minesweeper page for userId: ".concat(userId));
+        return mineSweeperService.getMinesweepersPageByUserId(userId, cursor, limit);
+    }
+
+    @GetMapping("/user/{userId}/summary")
     @ResponseStatus(HttpStatus.OK)
-    @ApiOperation(value = "Load game by Id", response = MineSweeper.class, produces = MediaType.APPLICATION_JSON_VALUE)
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "Game has been loaded successfully") })
-    public MineSweeper loadMinesweeper(@PathVariable("mineSweeperId") final String mineSweeperId){
+    @ApiOperation(value = "Gets a page of minesweeper's game summaries by user Id, most recently updated first", response = MineSweeperSummaryPage.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Games have been retrieved successfully") })
+    public MineSweeperSummaryPage getMinesweeperSummariesByUserId(@PathVariable("userId") final String userId,
+                                                                  @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                  @RequestParam(value = "limit", defaultValue = "20") final int limit) {
+        log.info("Retrieve minesweeper summaries for userId: ".concat(userId));
+        return mineSweeperService.getMinesweeperSummariesByUserId(userId, cursor, limit);
+    }
+
+    @GetMapping("/load/{mineSweeperId}")
+    @ApiOperation(value = "Load game by Id. Responds 304 Not Modified when If-None-Match has the ETag of the current game", response = MineSweeper.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Game has been loaded successfully"),
+            @ApiResponse(code = 304, message = "Game has not changed") })
+    public CompletableFuture<ResponseEntity<MineSweeper>> loadMinesweeper(@PathVariable("mineSweeperId") final String mineSweeperId,
+                                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch){
         log.info("Load minesweeper id: ".concat(mineSweeperId));
-        return mineSweeperService.getMineSweeperById(mineSweeperId);
+        // The request thread is released while the game is read, the response is written when it completes
+        if (ifNoneMatch == null) {
+            return mineSweeperService.getMineSweeperByIdAsync(mineSweeperId)
+                    .thenApply(mineSweeper -> ResponseEntity.ok().eTag(mineSweeper.etag()).body(mineSweeper));
+        }
+        // Checked before loading the game, so an unchanged game is never read nor serialized
+        return mineSweeperService.getMineSweeperETagAsync(mineSweeperId).thenCompose(etag -> matchesETag(ifNoneMatch, etag)
+                ? CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<MineSweeper>build())
+                : mineSweeperService.getMineSweeperByIdAsync(mineSweeperId)
+                        .thenApply(mineSweeper -> ResponseEntity.ok().eTag(mineSweeper.etag()).body(mineSweeper)));
+    }
+
+    @GetMapping("/load/{mineSweeperId}/compact")
+    @ApiOperation(value = "Load game by Id with its board in a compact encoding: ROWS, a string per row, or BITMAP, a base64 string of 4 bits per cell. Responds 304 Not Modified when If-None-Match has the ETag of the current game", response = CompactMineSweeper.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Game has been loaded successfully"),
+            @ApiResponse(code = 304, message = "Game has not changed") })
+    public CompletableFuture<ResponseEntity<CompactMineSweeper>> loadCompactMinesweeper(@PathVariable("mineSweeperId") final String mineSweeperId,
+                                                                                        @RequestParam(value = "encoding", defaultValue = "ROWS") final BoardEncoding encoding,
+                                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch){
+        log.info("Load compact minesweeper id: ".concat(mineSweeperId));
+        // Every encoding is a different representation of the game, so it gets its own tag
+        String suffix = "-".concat(encoding.name().toLowerCase());
+        if (ifNoneMatch == null) {
+            return mineSweeperService.getMineSweeperByIdAsync(mineSweeperId)
+                    .thenApply(mineSweeper -> compactResponse(mineSweeper, encoding, suffix));
+        }
+        return mineSweeperService.getMineSweeperETagAsync(mineSweeperId).thenCompose(storedETag -> {
+            String etag = storedETag.concat(suffix);
+            return matchesETag(ifNoneMatch, etag)
+                    ? CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<CompactMineSweeper>build())
+                    : mineSweeperService.getMineSweeperByIdAsync(mineSweeperId)
+                            .thenApply(mineSweeper -> compactResponse(mineSweeper, encoding, suffix));
+        });
+    }
+
+    @GetMapping(value = "/stream/{mineSweeperId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation(value = "Streams the changes applied to a game as server-sent events: a 'version' event with the game revision when the stream opens, a 'delta' event per move, pause or resume, and a 'resync' event when the client fell behind and should load the game again", response = MineSweeperDelta.class, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Stream has been opened successfully") })
+    public SseEmitter streamMinesweeper(@PathVariable("mineSweeperId") final String mineSweeperId){
+        log.info("Stream minesweeper id: ".concat(mineSweeperId));
+        return mineSweeperService.streamMineSweeper(mineSweeperId);
+    }
+
+    @GetMapping("/verify/{mineSweeperId}")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Replays a game from its seed and move log, and checks it reaches the stored status and recognized cells", response = ReplayResult.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Game has been verified") })
+    public ReplayResult verifyMinesweeper(@PathVariable("mineSweeperId") final String mineSweeperId){
+        log.info("Verify minesweeper id: ".concat(mineSweeperId));
+        return mineSweeperService.verifyMineSweeper(mineSweeperId);
     }
 
     @PutMapping("/pause/{mineSweeperId}")
@@ -89,4 +173,67 @@ public class MainController {
         return mineSweeperService.cellAction(cellRequest, CellAction.CLICK);
     }
 
+    @PutMapping("/cell/chord")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Cell's action. CHORD. Reveals the unflagged neighbours of a number whose adjacent flags match it", response = MineSweeper.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cell has been chorded successfully") })
+    public MineSweeper chordCellAction(@RequestBody final CellRequest cellRequest){
+        log.info("Chord cell");
+        return mineSweeperService.cellAction(cellRequest, CellAction.CHORD);
+    }
+
+    @PutMapping("/cell/flag/delta")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Cell's action. FLAG. Responds only with the cells that changed", response = MineSweeperDelta.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cell has been flagged/clicked successfully") })
+    public MineSweeperDelta flagCellDeltaAction(@RequestBody final CellRequest cellRequest){
+        log.info("Flag cell (delta)");
+        return mineSweeperService.cellActionDelta(cellRequest, CellAction.FLAG);
+    }
+
+    @PutMapping("/cell/click/delta")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Cell's action. CLICK. Responds only with the cells that changed", response = MineSweeperDelta.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cell has been flagged/clicked successfully") })
+    public MineSweeperDelta clickCellDeltaAction(@RequestBody final CellRequest cellRequest){
+        log.info("Click cell (delta)");
+        return mineSweeperService.cellActionDelta(cellRequest, CellAction.CLICK);
+    }
+
+    @PutMapping("/cell/chord/delta")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Cell's action. CHORD. Responds only with the cells that changed", response = MineSweeperDelta.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Cell has been chorded successfully") })
+    public MineSweeperDelta chordCellDeltaAction(@RequestBody final CellRequest cellRequest){
+        log.info("Chord cell (delta)");
+        return mineSweeperService.cellActionDelta(cellRequest, CellAction.CHORD);
+    }
+
+    @PutMapping("/cell/batch")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiOperation(value = "Applies an ordered list of cell actions in a single game update. Responds with the outcome of every move and the cells that changed", response = BatchMoveResponse.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Moves have been applied successfully") })
+    public BatchMoveResponse batchCellAction(@RequestBody final BatchCellRequest batchRequest){
+        log.info("Batch of cell actions for minesweeper id: ".concat(batchRequest.getMineSweeperId()));
+        return mineSweeperService.cellActions(batchRequest);
+    }
+
+    private static ResponseEntity<CompactMineSweeper> compactResponse(final MineSweeper mineSweeper,
+                                                                      final BoardEncoding encoding, final String suffix) {
+        return ResponseEntity.ok().eTag(mineSweeper.etag().concat(suffix)).body(CompactMineSweeper.of(mineSweeper, encoding));
+    }
+
+    private static boolean matchesETag(final String ifNoneMatch, final String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
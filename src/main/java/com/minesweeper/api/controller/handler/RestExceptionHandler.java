@@ -1,6 +1,8 @@
 package com.minesweeper.api.controller.handler;
 
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
 import com.minesweeper.api.dto.ApiError;
+import com.minesweeper.api.model.exception.GameConflictException;
 import com.minesweeper.api.model.exception.MinesweeperApiException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
@@ -22,6 +24,20 @@ public class RestExceptionHandler {
         return new ResponseEntity<ApiError>(apiError, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(GameConflictException.class)
+    protected ResponseEntity<ApiError> handleGameConflictException(final GameConflictException ex) {
+        log.error(ex.getMessage());
+        final ApiError apiError = ApiError.builder().message(ex.getMessage()).build();
+        return new ResponseEntity<ApiError>(apiError, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ConditionalCheckFailedException.class)
+    protected ResponseEntity<ApiError> handleConditionalCheckFailedException(final ConditionalCheckFailedException ex) {
+        log.error(ex.getMessage());
+        final ApiError apiError = ApiError.builder().message("The game has been modified since it was loaded").build();
+        return new ResponseEntity<ApiError>(apiError, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     protected ResponseEntity<ApiError> handleException(final Exception ex) {
         log.error(ex.getMessage());
@@ -0,0 +1,20 @@
+package com.minesweeper.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchCellRequest {
+
+    private String mineSweeperId;
+    // Applied in order, the game id of every move is ignored
+    private List<CellRequest> moves;
+
+}
@@ -0,0 +1,17 @@
+package com.minesweeper.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchMoveResponse {
+
+    // One per requested move, in the same order
+    private List<MoveOutcome> outcomes;
+    // Every cell changed by the batch, as it is after the last move
+    private MineSweeperDelta delta;
+
+}
@@ -0,0 +1,9 @@
+package com.minesweeper.api.dto;
+
+/**
+ * Compact representations of a board, see {@link CompactMineSweeper}.
+ */
+public enum BoardEncoding {
+    ROWS,
+    BITMAP
+}
@@ -1,14 +1,21 @@
 package com.minesweeper.api.dto;
 
+import com.minesweeper.api.model.CellAction;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 @Builder
 public class CellRequest {
 
     private int x;
     private int y;
     private String mineSweeperId;
+    // Only read for the moves of a batch, single move endpoints take the action from their path
+    private CellAction action;
 
 }
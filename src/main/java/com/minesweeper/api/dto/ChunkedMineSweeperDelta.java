@@ -0,0 +1,21 @@
+package com.minesweeper.api.dto;
+
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.Status;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ChunkedMineSweeperDelta {
+
+    private String mineSweeperId;
+    private long version;
+    private Status status;
+    private long recognizedCells;
+    private long flagsPlaced;
+    private List<Cell> cells;
+
+}
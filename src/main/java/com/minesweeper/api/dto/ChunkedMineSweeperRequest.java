@@ -0,0 +1,19 @@
+package com.minesweeper.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ChunkedMineSweeperRequest {
+
+    // Both 0 for an unbounded board
+    private int columns;
+    private int rows;
+    // Probability of every cell being a bomb
+    private double density;
+    private String userId;
+    // Optional, games created with the same seed and parameters get the same board
+    private Long seed;
+
+}
@@ -0,0 +1,37 @@
+package com.minesweeper.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.minesweeper.api.model.BoardBitmapSerializer;
+import com.minesweeper.api.model.BoardRowsSerializer;
+import com.minesweeper.api.model.MineSweeper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A game with its board in a compact encoding instead of the list of cells: either {@code rows}, a string per row,
+ * or {@code bitmap}, a base64 string of 4 bits per cell. Only the cells' visible state is sent.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactMineSweeper {
+
+    @JsonUnwrapped
+    @JsonIgnoreProperties("cells")
+    private MineSweeper game;
+
+    @JsonSerialize(using = BoardRowsSerializer.class)
+    private MineSweeper rows;
+
+    @JsonSerialize(using = BoardBitmapSerializer.class)
+    private MineSweeper bitmap;
+
+    public static CompactMineSweeper of(final MineSweeper mineSweeper, final BoardEncoding encoding) {
+        return new CompactMineSweeper(mineSweeper,
+                encoding == BoardEncoding.ROWS ? mineSweeper : null,
+                encoding == BoardEncoding.BITMAP ? mineSweeper : null);
+    }
+}
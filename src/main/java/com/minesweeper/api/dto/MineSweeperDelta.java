@@ -0,0 +1,22 @@
+package com.minesweeper.api.dto;
+
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.Status;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class MineSweeperDelta {
+
+    private String mineSweeperId;
+    private long version;
+    private Status status;
+    private int bombs;
+    private int flagsPlaced;
+    private int hiddenSafeCells;
+    private List<Cell> cells;
+
+}
@@ -0,0 +1,16 @@
+package com.minesweeper.api.dto;
+
+import com.minesweeper.api.model.MineSweeper;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class MineSweeperPage {
+
+    private List<MineSweeper> games;
+    private String nextCursor;
+
+}
@@ -13,5 +13,9 @@ public class MineSweeperRequest {
     private int rows;
     private int bombs;
     private String userId;
+    // Optional, games created with the same seed and parameters get the same board
+    private Long seed;
+    // Bombs are placed on the first click, which is always safe
+    private boolean lazy;
 
 }
@@ -0,0 +1,16 @@
+package com.minesweeper.api.dto;
+
+import com.minesweeper.api.model.MineSweeperSummary;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class MineSweeperSummaryPage {
+
+    private List<MineSweeperSummary> games;
+    private String nextCursor;
+
+}
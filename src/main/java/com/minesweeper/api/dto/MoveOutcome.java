@@ -0,0 +1,22 @@
+package com.minesweeper.api.dto;
+
+import com.minesweeper.api.model.CellAction;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MoveOutcome {
+
+    public enum Result {
+        APPLIED, REJECTED, SKIPPED
+    }
+
+    private int x;
+    private int y;
+    private CellAction action;
+    private Result result;
+    // Why the move was rejected or skipped
+    private String message;
+
+}
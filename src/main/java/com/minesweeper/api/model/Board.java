@@ -0,0 +1,448 @@
+package com.minesweeper.api.model;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Packed representation of a minesweeper grid. Every cell is addressed by its index {@code x * columns + y}, the
+ * neighbour counts live in a byte array and bomb/flag/recognized states are kept as bitsets, so lookups and
+ * neighbour access are O(1). {@link Cell} instances are only built when a response needs them.
+ */
+@Getter
+@EqualsAndHashCode
+public class Board {
+
+    // Visible states past the values 0 to 8, see visibleState
+    public static final int HIDDEN = 9;
+    public static final int FLAGGED = 10;
+    public static final int BOMB = 11;
+
+    private static final int INITIAL_FLOOD_FILL_CAPACITY = 1024;
+
+    // Largest queue kept for the next fill (64 KB), a bigger one is only used by the fill that needed it
+    private static final int MAX_RETAINED_FLOOD_FILL_CAPACITY = 16 * 1024;
+
+    /**
+     * Work queue reused by every flood fill run on the same thread, so revealing a region does not allocate per
+     * cell. Regions bigger than {@link #MAX_RETAINED_FLOOD_FILL_CAPACITY} grow a queue of their own, so a huge board
+     * does not leave megabytes behind on every request thread.
+     */
+    private static final ThreadLocal<int[]> FLOOD_FILL_QUEUE =
+            ThreadLocal.withInitial(() -> new int[INITIAL_FLOOD_FILL_CAPACITY]);
+
+    private final int rows;
+    private final int columns;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] values;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final BitSet bombs;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final BitSet flagged;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final BitSet recognized;
+
+    // Live counters, kept up to date by every mutation so the game never has to rescan the grid
+    private int bombCount;
+    private int flagsPlaced;
+    private int hiddenSafeCells;
+
+    public Board(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new byte[rows * columns];
+        this.bombs = new BitSet(rows * columns);
+        this.flagged = new BitSet(rows * columns);
+        this.recognized = new BitSet(rows * columns);
+        this.hiddenSafeCells = rows * columns;
+    }
+
+    private Board(final Board board) {
+        this.rows = board.rows;
+        this.columns = board.columns;
+        this.values = board.values.clone();
+        this.bombs = (BitSet) board.bombs.clone();
+        this.flagged = (BitSet) board.flagged.clone();
+        this.recognized = (BitSet) board.recognized.clone();
+        this.bombCount = board.bombCount;
+        this.flagsPlaced = board.flagsPlaced;
+        this.hiddenSafeCells = board.hiddenSafeCells;
+    }
+
+    /**
+     * Independent copy of the board, later moves on either one do not change the other.
+     */
+    public Board copy() {
+        return new Board(this);
+    }
+
+    /**
+     * Rebuilds a board from its cell list. Dimensions are taken from the cells themselves so the result does not
+     * depend on the order in which the owning game's attributes were populated.
+     */
+    public static Board fromCells(final List<Cell> cells) {
+        if (cells == null || cells.isEmpty()) {
+            return null;
+        }
+
+        int rows = 0;
+        int columns = 0;
+        for (Cell cell : cells) {
+            rows = Math.max(rows, cell.getX() + 1);
+            columns = Math.max(columns, cell.getY() + 1);
+        }
+
+        Board board = new Board(rows, columns);
+        for (Cell cell : cells) {
+            int index = board.index(cell.getX(), cell.getY());
+            board.values[index] = (byte) cell.getValue();
+            board.bombs.set(index, cell.isBomb());
+            board.flagged.set(index, cell.isFlagged());
+            board.recognized.set(index, cell.isRecognized());
+        }
+
+        board.recount();
+        return board;
+    }
+
+    /**
+     * Rebuilds a board from its bomb, flag and recognized bitsets. Values are recomputed from the bombs, so they do
+     * not need to be stored.
+     */
+    static Board fromBitSets(final int rows, final int columns, final BitSet bombs, final BitSet flagged,
+                             final BitSet recognized) {
+        Board board = new Board(rows, columns);
+        for (int i = bombs.nextSetBit(0); i >= 0 && i < board.size(); i = bombs.nextSetBit(i + 1)) {
+            board.placeBomb(i);
+        }
+        board.flagged.or(flagged);
+        board.recognized.or(recognized);
+        board.recount();
+        return board;
+    }
+
+    /**
+     * Capacity of the flood fill queue kept for the next fill on this thread.
+     */
+    static int retainedFloodFillCapacity() {
+        return FLOOD_FILL_QUEUE.get().length;
+    }
+
+    private void recount() {
+        this.bombCount = this.bombs.cardinality();
+        this.flagsPlaced = this.flagged.cardinality();
+        BitSet hiddenSafe = (BitSet) this.bombs.clone();
+        hiddenSafe.or(this.recognized);
+        this.hiddenSafeCells = size() - hiddenSafe.cardinality();
+    }
+
+    public int size() {
+        return this.values.length;
+    }
+
+    public boolean contains(final int x, final int y) {
+        return x >= 0 && x < this.rows && y >= 0 && y < this.columns;
+    }
+
+    public int index(final int x, final int y) {
+        return x * this.columns + y;
+    }
+
+    public int row(final int index) {
+        return index / this.columns;
+    }
+
+    public int column(final int index) {
+        return index % this.columns;
+    }
+
+    public boolean isBomb(final int index) {
+        return this.bombs.get(index);
+    }
+
+    public boolean isFlagged(final int index) {
+        return this.flagged.get(index);
+    }
+
+    public boolean isRecognized(final int index) {
+        return this.recognized.get(index);
+    }
+
+    public int getValue(final int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Turns the cell into a bomb and increments the value of its neighbours, so the counts are always up to date
+     * without a second pass over the grid.
+     */
+    public void placeBomb(final int index) {
+        if (this.bombs.get(index)) {
+            return;
+        }
+        this.bombs.set(index);
+        this.bombCount++;
+        if (!this.recognized.get(index)) {
+            this.hiddenSafeCells--;
+        }
+
+        int x = row(index);
+        int y = column(index);
+        for (int i = Math.max(0, x - 1); i <= Math.min(this.rows - 1, x + 1); i++) {
+            for (int j = Math.max(0, y - 1); j <= Math.min(this.columns - 1, y + 1); j++) {
+                if (i != x || j != y) {
+                    this.values[index(i, j)]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Places {@code amount} bombs uniformly at random with Floyd's sampling. The bomb bitset is the sample set, so it
+     * costs O(amount) whatever the density and allocates nothing.
+     */
+    public void placeBombs(final int amount, final SplittableRandom random) {
+        placeBombs(amount, random, new int[0]);
+    }
+
+    /**
+     * Same as {@link #placeBombs(int, SplittableRandom)}, keeping {@code safeIndex} and, when there is room enough,
+     * its neighbours free of bombs.
+     */
+    public void placeBombs(final int amount, final SplittableRandom random, final int safeIndex) {
+        final int x = row(safeIndex);
+        final int y = column(safeIndex);
+        final int fromColumn = Math.max(0, y - 1);
+        final int toColumn = Math.min(this.columns - 1, y + 1);
+        final int fromRow = Math.max(0, x - 1);
+        final int toRow = Math.min(this.rows - 1, x + 1);
+
+        if (size() - (toRow - fromRow + 1) * (toColumn - fromColumn + 1) < amount) {
+            placeBombs(amount, random, new int[] { safeIndex, safeIndex + 1 });
+            return;
+        }
+
+        final int[] excluded = new int[(toRow - fromRow + 1) * 2];
+        for (int i = fromRow; i <= toRow; i++) {
+            excluded[(i - fromRow) * 2] = index(i, fromColumn);
+            excluded[(i - fromRow) * 2 + 1] = index(i, toColumn) + 1;
+        }
+        placeBombs(amount, random, excluded);
+    }
+
+    /**
+     * Floyd's sampling over the cells outside of {@code excluded}, given as sorted [from, to) index ranges. Samples
+     * are mapped to cell indexes by skipping the ranges, so a sample is taken iff its cell is a bomb.
+     */
+    private void placeBombs(final int amount, final SplittableRandom random, final int[] excluded) {
+        int available = size();
+        for (int i = 0; i < excluded.length; i += 2) {
+            available -= excluded[i + 1] - excluded[i];
+        }
+
+        for (int candidate = available - amount; candidate < available; candidate++) {
+            final int index = toIndex(random.nextInt(candidate + 1), excluded);
+            // Placing a bomb also updates the value of its neighbours (how many bombs they have near)
+            placeBomb(this.bombs.get(index) ? toIndex(candidate, excluded) : index);
+        }
+    }
+
+    private static int toIndex(final int sample, final int[] excluded) {
+        int index = sample;
+        for (int i = 0; i < excluded.length && index >= excluded[i]; i += 2) {
+            index += excluded[i + 1] - excluded[i];
+        }
+        return index;
+    }
+
+    public void toggleFlag(final int index) {
+        this.flagged.flip(index);
+        this.flagsPlaced += this.flagged.get(index) ? 1 : -1;
+    }
+
+    public void recognize(final int index) {
+        if (!this.recognized.get(index)) {
+            this.recognized.set(index);
+            if (!this.bombs.get(index)) {
+                this.hiddenSafeCells--;
+            }
+        }
+    }
+
+    /**
+     * Recognizes the cell and, when it has no bombs near, flood fills the empty region around it. The fill is
+     * iterative over an index queue, so its cost is O(revealed cells) regardless of the region shape.
+     *
+     * @return how many cells became recognized by this call
+     */
+    public int reveal(final int start) {
+        return reveal(start, null);
+    }
+
+    /**
+     * Same as {@link #reveal(int)}, also handing every newly recognized cell index to {@code onRecognized}.
+     */
+    public int reveal(final int start, final IntConsumer onRecognized) {
+        if (this.recognized.get(start)) {
+            return 0;
+        }
+        this.recognized.set(start);
+        if (onRecognized != null) {
+            onRecognized.accept(start);
+        }
+        if (this.bombs.get(start)) {
+            return 1;
+        }
+        if (this.values[start] != 0) {
+            this.hiddenSafeCells--;
+            return 1;
+        }
+
+        int[] queue = FLOOD_FILL_QUEUE.get();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            final int index = queue[head++];
+            if (this.values[index] != 0) {
+                continue;
+            }
+
+            final int x = row(index);
+            final int y = column(index);
+            for (int i = Math.max(0, x - 1); i <= Math.min(this.rows - 1, x + 1); i++) {
+                for (int j = Math.max(0, y - 1); j <= Math.min(this.columns - 1, y + 1); j++) {
+                    final int adjacent = index(i, j);
+                    if (this.recognized.get(adjacent) || this.bombs.get(adjacent)) {
+                        continue;
+                    }
+                    this.recognized.set(adjacent);
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, Math.min(size(), queue.length * 2));
+                        if (queue.length <= MAX_RETAINED_FLOOD_FILL_CAPACITY) {
+                            FLOOD_FILL_QUEUE.set(queue);
+                        }
+                    }
+                    queue[tail++] = adjacent;
+                }
+            }
+        }
+
+        if (onRecognized != null) {
+            // The start cell was already reported
+            for (int i = 1; i < tail; i++) {
+                onRecognized.accept(queue[i]);
+            }
+        }
+        this.hiddenSafeCells -= tail;
+        return tail;
+    }
+
+    /**
+     * Chords a recognized cell: when as many of its neighbours are flagged as bombs it has near, every hidden
+     * unflagged neighbour is revealed, flood filling the empty ones. Wrong flags make it reveal a bomb.
+     *
+     * @return how many cells became recognized by this call, 0 when the flags do not match the cell value
+     */
+    public int chord(final int index, final IntConsumer onRecognized) {
+        if (!this.recognized.get(index) || this.bombs.get(index) || this.values[index] == 0) {
+            return 0;
+        }
+
+        final int[] neighbours = new int[8];
+        final int count = neighbours(index, neighbours);
+        int flags = 0;
+        for (int i = 0; i < count; i++) {
+            if (this.flagged.get(neighbours[i])) {
+                flags++;
+            }
+        }
+        if (flags != this.values[index]) {
+            return 0;
+        }
+
+        int revealed = 0;
+        for (int i = 0; i < count; i++) {
+            if (!this.flagged.get(neighbours[i])) {
+                revealed += reveal(neighbours[i], onRecognized);
+            }
+        }
+        return revealed;
+    }
+
+    /**
+     * Writes the indexes of the cells adjacent to {@code index} into {@code buffer} (which must hold at least 8
+     * entries) and returns how many were written.
+     */
+    public int neighbours(final int index, final int[] buffer) {
+        int x = row(index);
+        int y = column(index);
+        int count = 0;
+        for (int i = Math.max(0, x - 1); i <= Math.min(this.rows - 1, x + 1); i++) {
+            for (int j = Math.max(0, y - 1); j <= Math.min(this.columns - 1, y + 1); j++) {
+                if (i != x || j != y) {
+                    buffer[count++] = index(i, j);
+                }
+            }
+        }
+        return count;
+    }
+
+    public void forEachBomb(final IntConsumer action) {
+        for (int i = this.bombs.nextSetBit(0); i >= 0; i = this.bombs.nextSetBit(i + 1)) {
+            action.accept(i);
+        }
+    }
+
+    public int recognizedCount() {
+        return this.recognized.cardinality();
+    }
+
+    public Cell toCell(final int index) {
+        return Cell.builder().x(row(index)).y(column(index)).value(this.values[index])
+                .bomb(isBomb(index)).flagged(isFlagged(index)).recognized(isRecognized(index)).build();
+    }
+
+    /**
+     * Builds the cell as a player is allowed to see it: value and bomb are only disclosed once it is recognized.
+     */
+    public Cell toVisibleCell(final int index) {
+        final boolean visible = isRecognized(index);
+        return Cell.builder().x(row(index)).y(column(index)).value(visible ? this.values[index] : 0)
+                .bomb(visible && isBomb(index)).flagged(isFlagged(index)).recognized(visible).build();
+    }
+
+    /**
+     * State of the cell as a player sees it: its value once recognized, {@link #BOMB} for a recognized bomb, and
+     * {@link #FLAGGED} or {@link #HIDDEN} otherwise. With {@code disclose}, hidden bombs are reported as well.
+     */
+    public int visibleState(final int index, final boolean disclose) {
+        if (isBomb(index) && (disclose || isRecognized(index))) {
+            return BOMB;
+        }
+        if (isRecognized(index)) {
+            return this.values[index];
+        }
+        return isFlagged(index) ? FLAGGED : HIDDEN;
+    }
+
+    public List<Cell> toCells() {
+        List<Cell> cells = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            cells.add(toCell(i));
+        }
+        return cells;
+    }
+}
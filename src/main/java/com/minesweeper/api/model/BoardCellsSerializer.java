@@ -0,0 +1,55 @@
+package com.minesweeper.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.minesweeper.api.config.GameMetrics;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Board} as the list of its {@link Cell}s, with the same properties Jackson writes for a cell, but
+ * straight from the packed board: no cell instance is built and no bean introspection runs, so serializing a board
+ * only takes the generator's buffer whatever its size.
+ */
+public class BoardCellsSerializer extends StdSerializer<Board> {
+
+    private static final SerializedString X = new SerializedString("x");
+    private static final SerializedString Y = new SerializedString("y");
+    private static final SerializedString VALUE = new SerializedString("value");
+    private static final SerializedString FLAGGED = new SerializedString("flagged");
+    private static final SerializedString BOMB = new SerializedString("bomb");
+    private static final SerializedString RECOGNIZED = new SerializedString("recognized");
+
+    public BoardCellsSerializer() {
+        super(Board.class);
+    }
+
+    @Override
+    public void serialize(final Board board, final JsonGenerator generator, final SerializerProvider provider)
+            throws IOException {
+        final long start = System.nanoTime();
+        generator.writeStartArray();
+        for (int x = 0, index = 0; x < board.getRows(); x++) {
+            for (int y = 0; y < board.getColumns(); y++, index++) {
+                generator.writeStartObject();
+                generator.writeFieldName(X);
+                generator.writeNumber(x);
+                generator.writeFieldName(Y);
+                generator.writeNumber(y);
+                generator.writeFieldName(VALUE);
+                generator.writeNumber(board.getValue(index));
+                generator.writeFieldName(FLAGGED);
+                generator.writeBoolean(board.isFlagged(index));
+                generator.writeFieldName(BOMB);
+                generator.writeBoolean(board.isBomb(index));
+                generator.writeFieldName(RECOGNIZED);
+                generator.writeBoolean(board.isRecognized(index));
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        GameMetrics.recordSerialization("cells", board, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,106 @@
+package com.minesweeper.api.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMappingException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.minesweeper.api.config.GameMetrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores a {@link Board} as a single binary attribute instead of a list of cell maps.
+ * <p>
+ * Format version 1: a version byte followed by a deflate stream holding rows and columns, 2 bits of state per cell
+ * (bit 0 flagged, bit 1 recognized) packed four cells per byte, and the bomb bitset. Neighbour values and counters
+ * are recomputed from the bombs when the board is read back.
+ */
+public class BoardConverter implements DynamoDBTypeConverter<byte[], Board> {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAGGED = 1;
+    private static final int RECOGNIZED = 2;
+
+    @Override
+    public byte[] convert(final Board board) {
+        final long start = System.nanoTime();
+        final byte[] encoded = encode(board);
+        GameMetrics.recordBoardEncoding("encode", board, encoded.length, System.nanoTime() - start);
+        return encoded;
+    }
+
+    @Override
+    public Board unconvert(final byte[] encoded) {
+        final long start = System.nanoTime();
+        final Board board = decode(encoded);
+        GameMetrics.recordBoardEncoding("decode", board, encoded.length, System.nanoTime() - start);
+        return board;
+    }
+
+    private static byte[] encode(final Board board) {
+        final int size = board.size();
+        final byte[] states = new byte[(size + 3) / 4];
+        for (int i = 0; i < size; i++) {
+            int state = (board.isFlagged(i) ? FLAGGED : 0) | (board.isRecognized(i) ? RECOGNIZED : 0);
+            states[i >> 2] |= state << ((i & 3) << 1);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(FORMAT_VERSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(board.getRows());
+            out.writeInt(board.getColumns());
+            out.write(states);
+            out.write(toBytes(board.getBombs(), (size + 7) / 8));
+        } catch (IOException e) {
+            throw new DynamoDBMappingException("Board could not be encoded", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Board decode(final byte[] encoded) {
+        if (encoded.length == 0 || encoded[0] != FORMAT_VERSION) {
+            throw new DynamoDBMappingException("Unsupported board format version");
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(encoded, 1, encoded.length - 1)))) {
+            final int rows = in.readInt();
+            final int columns = in.readInt();
+            final int size = rows * columns;
+
+            final byte[] states = new byte[(size + 3) / 4];
+            in.readFully(states);
+            final byte[] bombs = new byte[(size + 7) / 8];
+            in.readFully(bombs);
+
+            final BitSet flagged = new BitSet(size);
+            final BitSet recognized = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                int state = (states[i >> 2] >> ((i & 3) << 1)) & 3;
+                if ((state & FLAGGED) != 0) {
+                    flagged.set(i);
+                }
+                if ((state & RECOGNIZED) != 0) {
+                    recognized.set(i);
+                }
+            }
+            return Board.fromBitSets(rows, columns, BitSet.valueOf(bombs), flagged, recognized);
+        } catch (IOException e) {
+            throw new DynamoDBMappingException("Board could not be decoded", e);
+        }
+    }
+
+    private static byte[] toBytes(final BitSet bits, final int length) {
+        final byte[] bytes = new byte[length];
+        final byte[] set = bits.toByteArray();
+        System.arraycopy(set, 0, bytes, 0, Math.min(set.length, length));
+        return bytes;
+    }
+}
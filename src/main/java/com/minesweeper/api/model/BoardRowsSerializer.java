@@ -0,0 +1,44 @@
+package com.minesweeper.api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.minesweeper.api.config.GameMetrics;
+
+import java.io.IOException;
+
+/**
+ * Writes the board of a game as one string per row, one character per cell as the player sees it: {@code 0} to
+ * {@code 8} for a recognized cell, {@code *} for a bomb, {@code F} for a flag and {@code #} for a hidden cell. Bombs
+ * are disclosed once the game has ended. A single row is buffered at a time.
+ */
+public class BoardRowsSerializer extends StdSerializer<MineSweeper> {
+
+    private static final char[] STATES = "012345678#F*".toCharArray();
+
+    public BoardRowsSerializer() {
+        super(MineSweeper.class);
+    }
+
+    @Override
+    public void serialize(final MineSweeper mineSweeper, final JsonGenerator generator,
+                          final SerializerProvider provider) throws IOException {
+        final Board board = mineSweeper.getBoard();
+        if (board == null) {
+            generator.writeNull();
+            return;
+        }
+        final long start = System.nanoTime();
+        final boolean disclose = mineSweeper.gameEnded();
+        final char[] row = new char[board.getColumns()];
+        generator.writeStartArray();
+        for (int x = 0, index = 0; x < board.getRows(); x++) {
+            for (int y = 0; y < row.length; y++, index++) {
+                row[y] = STATES[board.visibleState(index, disclose)];
+            }
+            generator.writeString(row, 0, row.length);
+        }
+        generator.writeEndArray();
+        GameMetrics.recordSerialization("rows", board, System.nanoTime() - start);
+    }
+}
@@ -1,5 +1,5 @@
 package com.minesweeper.api.model;
 
 public enum CellAction {
-    FLAG, CLICK;
+    FLAG, CLICK, CHORD;
 }
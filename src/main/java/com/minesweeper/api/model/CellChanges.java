@@ -0,0 +1,30 @@
+package com.minesweeper.api.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects the indexes of the cells changed by a move, so a response can be built from them instead of from the
+ * whole board.
+ */
+public class CellChanges implements IntConsumer {
+
+    private int[] indexes = new int[16];
+    private int size;
+
+    @Override
+    public void accept(final int index) {
+        if (this.size == this.indexes.length) {
+            this.indexes = Arrays.copyOf(this.indexes, this.size * 2);
+        }
+        this.indexes[this.size++] = index;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int get(final int position) {
+        return this.indexes[position];
+    }
+}
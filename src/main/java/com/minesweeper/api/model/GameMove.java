@@ -0,0 +1,48 @@
+package com.minesweeper.api.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Entry of the append-only move log of a game. {@code seq} is the game's move counter once the move is applied, so
+ * the moves after a snapshot are the ones with a greater seq than the snapshot's.
+ * <p>
+ * A fence is not a move: it takes the sequence number after the last move of a paused game, so no instance can log a
+ * move against the paused game until it is resumed and the fence removed.
+ */
+@DynamoDBTable(tableName = "Minesweeper.Moves")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class GameMove {
+
+    @DynamoDBHashKey(attributeName = "gameId")
+    private String gameId;
+
+    @DynamoDBRangeKey(attributeName = "seq")
+    private long seq;
+
+    @DynamoDBAttribute(attributeName = "x")
+    private int x;
+
+    @DynamoDBAttribute(attributeName = "y")
+    private int y;
+
+    @DynamoDBTyped(DynamoDBMapperFieldModel.DynamoDBAttributeType.S)
+    @DynamoDBAttribute(attributeName = "action")
+    private CellAction action;
+
+    @DynamoDBAttribute(attributeName = "fence")
+    private boolean fence;
+
+    @DynamoDBAttribute(attributeName = "time")
+    @DynamoDBAutoGeneratedTimestamp(strategy = DynamoDBAutoGenerateStrategy.CREATE)
+    private Date time;
+
+}
@@ -1,6 +1,10 @@
 package com.minesweeper.api.model;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.*;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.minesweeper.api.model.exception.MinesweeperApiException;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,20 +12,23 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 
 @DynamoDBTable(tableName = "Minesweeper.Games")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class MineSweeper {
 
+    public static final String USER_INDEX = "userId-lastUpdate-index";
+
     @DynamoDBAutoGeneratedKey
     @DynamoDBHashKey(attributeName = "id")
     private String id;
 
-    @DynamoDBAttribute(attributeName = "userId")
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = USER_INDEX, attributeName = "userId")
     private String userId;
 
     @DynamoDBAttribute(attributeName = "rows")
@@ -33,8 +40,41 @@ public class MineSweeper {
     @DynamoDBAttribute(attributeName = "bombs")
     private int bombs;
 
-    @DynamoDBAttribute(attributeName = "cells")
-    private List<Cell> cells;
+    private Board board;
+
+    // Counters are served by the board when it is loaded, the stored values are used otherwise. A lazy game flagged
+    // before its first click has a board without bombs yet, it keeps using the stored values and configured bombs
+    private int hiddenSafeCells;
+
+    private int flagsPlaced;
+
+    private int progress;
+
+    // Number of moves applied to the game
+    @DynamoDBAttribute(attributeName = "moves")
+    private long moves;
+
+    // Number of changes applied to the game: moves, pauses, resumes and saves of the whole game. Deltas carry it as
+    // their version, so clients apply them in order
+    @DynamoDBAttribute(attributeName = "revision")
+    private long revision;
+
+    // Seed the bombs were placed with, the same seed and dimensions always generate the same board. It is never
+    // sent to the players, since it discloses where the bombs are
+    @JsonIgnore
+    @DynamoDBAttribute(attributeName = "seed")
+    private Long seed;
+
+    // Lazy games do not place their bombs until the first click
+    @DynamoDBAttribute(attributeName = "lazy")
+    private boolean lazy;
+
+    @DynamoDBAttribute(attributeName = "pendingBombs")
+    private boolean pendingBombs;
+
+    // Incremented on every write, which is conditioned on the stored version being the one that was read
+    @DynamoDBVersionAttribute(attributeName = "version")
+    private Long version;
 
     @DynamoDBTyped(DynamoDBMapperFieldModel.DynamoDBAttributeType.S)
     @DynamoDBAttribute(attributeName = "status")
@@ -49,37 +89,117 @@ public class MineSweeper {
     @DynamoDBAutoGeneratedTimestamp(strategy = DynamoDBAutoGenerateStrategy.CREATE)
     private Date creationTime;
 
-    @DynamoDBAttribute(attributeName = "lastUpdate")
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = USER_INDEX, attributeName = "lastUpdate")
     @DynamoDBAutoGeneratedTimestamp(strategy = DynamoDBAutoGenerateStrategy.ALWAYS)
     private Date lastUpdate;
 
     public void initCells() {
-        if (this.columns <= 0 || this.rows <=0 || this.bombs<=0) {
-            throw new MinesweeperApiException(
-                    "Invalid request. Columns, Rows and Bombs should be greater that 0");
-        }
+        this.validateParameters();
 
-        if (this.columns * this.rows <= this.bombs) {
-            throw new MinesweeperApiException(
-                    "Invalid request. Amount of bombs should be less than total amount of cells");
-        }
+        this.board = new Board(this.rows, this.columns);
+        this.board.placeBombs(this.bombs, new SplittableRandom(this.seed));
+    }
 
-        this.cells = new ArrayList<>();
-        for (int i = 0; i < this.getRows(); i++) {
-            for (int j = 0; j < this.getColumns(); j++) {
-                this.cells.add(new Cell(i, j));
-            }
+    /**
+     * Creates the game with its dimensions only. Bombs are placed on the first click, away from the clicked cell and
+     * its neighbours, so creating the game is O(1) and the first click can not hit a bomb.
+     */
+    public void initLazyCells() {
+        this.validateParameters();
+
+        this.board = null;
+        this.lazy = true;
+        this.pendingBombs = true;
+        this.hiddenSafeCells = this.rows * this.columns - this.bombs;
+    }
+
+    @JsonIgnore
+    @DynamoDBAttribute(attributeName = "board")
+    @DynamoDBTypeConverted(converter = BoardConverter.class)
+    public Board getBoard() {
+        return this.board;
+    }
+
+    public void setBoard(Board board) {
+        this.board = board;
+    }
+
+    @JsonIgnore
+    @DynamoDBIgnore
+    public List<Cell> getCells() {
+        return this.board != null ? this.board.toCells() : null;
+    }
+
+    @JsonProperty("cells")
+    public void setCells(List<Cell> cells) {
+        this.board = Board.fromCells(cells);
+    }
+
+    /**
+     * The cells of the response are written straight from the board, {@link #getCells()} would build them all first.
+     */
+    @JsonGetter("cells")
+    @JsonSerialize(using = BoardCellsSerializer.class)
+    Board cellsView() {
+        return this.board;
+    }
+
+    /**
+     * Games saved before the binary board was introduced keep their board as a list of cell maps. It is only read
+     * to migrate them: the attribute is always written as null, which removes it on the next save.
+     */
+    @JsonIgnore
+    @DynamoDBAttribute(attributeName = "cells")
+    public List<Cell> getLegacyCells() {
+        return null;
+    }
+
+    public void setLegacyCells(List<Cell> cells) {
+        if (this.board == null) {
+            this.board = Board.fromCells(cells);
         }
+    }
 
-        // Shuffle the cell list
-        Collections.shuffle(this.getCells());
+    @DynamoDBAttribute(attributeName = "hiddenSafeCells")
+    public int getHiddenSafeCells() {
+        return this.hasBombsPlaced() ? this.board.getHiddenSafeCells() : this.hiddenSafeCells;
+    }
 
-        // Get a bucket of cells and converted to bombs
-        this.getCells().stream().limit(this.getBombs()).forEach(cellMine -> cellMine.setBomb(true));
+    @DynamoDBAttribute(attributeName = "flagsPlaced")
+    public int getFlagsPlaced() {
+        return this.board != null ? this.board.getFlagsPlaced() : this.flagsPlaced;
+    }
 
-        // Sets value for each cell (how many bombs has near)
-        final Stream<Cell> aStreamOfCells = this.getCells().stream().filter((cell) -> !cell.isBomb());
-        aStreamOfCells.forEach((cell) -> cell.setValue(this.calculateValue(cell)));
+    /**
+     * Percentage of the safe cells already recognized. It is stored so listings can show it without the board.
+     */
+    @DynamoDBAttribute(attributeName = "progress")
+    public int getProgress() {
+        if (!this.hasBombsPlaced()) {
+            return this.progress;
+        }
+        final int safeCells = this.board.size() - this.board.getBombCount();
+        return safeCells > 0 ? (int) ((safeCells - this.board.getHiddenSafeCells()) * 100L / safeCells) : 0;
+    }
+
+    /**
+     * Copy of the game as it is now, with a board of its own, so it can be serialized while moves keep being applied
+     * to this one.
+     */
+    public MineSweeper copy() {
+        MineSweeper copy = this.toBuilder().build();
+        copy.board = this.board != null ? this.board.copy() : null;
+        return copy;
+    }
+
+    /**
+     * Entity tag of the game state: it changes with every write of the item (version) and every change applied in
+     * memory (revision, which also covers the changes not yet written by the session cache or the move log, such as a
+     * whole game saved over the cached one).
+     */
+    public String etag() {
+        return "v" + this.version + "-r" + this.revision + "-m" + this.moves + "-" + this.status + "-"
+                + this.timePaused;
     }
 
     public void pause() {
@@ -87,44 +207,151 @@ public class MineSweeper {
             accumulateTimePaused();
         }
         this.setStatus(this.status.pause());
+        this.revision++;
     }
 
     public Cell getCell(int x, int y) {
-        return cells.stream().filter(c -> c.getX() == x && c.getY() == y).findFirst()
-                .orElseThrow(() -> new MinesweeperApiException("Requested cell is out of index"));
+        return this.board.toCell(this.indexOf(x, y));
+    }
+
+    public void flagCell(int x, int y) {
+        this.flagCell(x, y, null);
+    }
+
+    public void flagCell(int x, int y, CellChanges changes) {
+        final int index = this.indexOf(x, y);
+        this.board.toggleFlag(index);
+        this.moves++;
+        this.revision++;
+        if (changes != null) {
+            changes.accept(index);
+        }
+    }
+
+    /**
+     * Places the bombs of a board generated on its first click, keeping the clicked cell safe. The first click places
+     * them itself, this lets the caller time the placement apart from the flood fill.
+     *
+     * @return whether the bombs were pending
+     */
+    public boolean placePendingBombs(int x, int y) {
+        if (!this.pendingBombs) {
+            return false;
+        }
+        final int index = this.indexOf(x, y);
+        this.board.placeBombs(this.bombs, new SplittableRandom(this.seed), index);
+        this.pendingBombs = false;
+        return true;
+    }
+
+    public void recognizeCell(int x, int y) {
+        this.recognizeCell(x, y, null);
     }
 
-    public void recognizeCell(Cell cell) {
+    public void recognizeCell(int x, int y, CellChanges changes) {
         if(!this.getStatus().equals(Status.ACTIVE)){
             throw new MinesweeperApiException("You could not do a move in a non active game");
         }
-        cell.setRecognized(true);
-
-        if (cell.isBomb()) {
+        final int index = this.indexOf(x, y);
+        this.placePendingBombs(x, y);
+        // Recognizes the cell, and all the empty region around it when it has no bombs near
+        this.board.reveal(index, changes);
+        this.moves++;
+        this.revision++;
+
+        if (this.board.isBomb(index)) {
             // game over
             this.setStatus(Status.GAME_OVER);
             return;
         }
 
-        if (cell.getValue() == 0) {
-            this.recognizeAdjacentCells(cell);
+        if (this.board.getHiddenSafeCells() == 0) {
+            // no more bombs!!!
+            this.setStatus(Status.WIN);
         }
+    }
 
-        int totalRecognized = cells.stream().map(c -> c.isRecognized() ? 1 : 0).reduce(0, Integer::sum);
-        int totalBombs = bombsAmount();
+    public void chordCell(int x, int y, CellChanges changes) {
+        if(!this.getStatus().equals(Status.ACTIVE)){
+            throw new MinesweeperApiException("You could not do a move in a non active game");
+        }
+        final int index = this.indexOf(x, y);
+        // Reveals the unflagged neighbours, and the empty regions around them, when the flags match the value
+        final int revealed = this.board.chord(index, changes);
+        if (revealed == 0) {
+            return;
+        }
+        this.moves++;
+        this.revision++;
+
+        final int[] neighbours = new int[8];
+        final int count = this.board.neighbours(index, neighbours);
+        for (int i = 0; i < count; i++) {
+            if (this.board.isBomb(neighbours[i]) && this.board.isRecognized(neighbours[i])) {
+                // game over, a flag was wrong
+                this.setStatus(Status.GAME_OVER);
+                return;
+            }
+        }
 
-        if (totalRecognized + totalBombs == cells.size()) {
+        if (this.board.getHiddenSafeCells() == 0) {
             // no more bombs!!!
             this.setStatus(Status.WIN);
         }
     }
 
+    /**
+     * Applies a logged move again. Bombs are placed from the seed, so replaying the moves of a game over its
+     * snapshot always leads to the same board.
+     */
+    public void replay(GameMove move) {
+        switch (move.getAction()) {
+            case FLAG:
+                this.flagCell(move.getX(), move.getY());
+                break;
+            case CLICK:
+                this.recognizeCell(move.getX(), move.getY());
+                break;
+            case CHORD:
+                this.chordCell(move.getX(), move.getY(), null);
+                break;
+        }
+    }
+
+    /**
+     * Builds the cells referenced by {@code changes} as the player sees them. Once the game is over every bomb is
+     * disclosed as well.
+     */
+    public List<Cell> changedCells(CellChanges changes) {
+        final List<Cell> cells = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            final int index = changes.get(i);
+            if (!this.gameEnded() || !this.board.isBomb(index)) {
+                cells.add(this.board.toVisibleCell(index));
+            }
+        }
+        if (this.gameEnded()) {
+            this.board.forEachBomb(index -> cells.add(this.board.toCell(index)));
+        }
+        return cells;
+    }
+
+    public boolean gameEnded() {
+        return Status.GAME_OVER.equals(this.status) || Status.WIN.equals(this.status);
+    }
+
     public Integer bombsAmount() {
-        return cells.stream().map(c -> c.isBomb() ? 1 : 0).reduce(0, Integer::sum);
+        return this.hasBombsPlaced() ? this.board.getBombCount() : this.bombs;
     }
 
     public Stream<Cell> getAdjacentCellsStream(Cell cell) {
-        return cells.stream().filter(c -> c.isAdjacentTo(cell));
+        final int[] neighbours = new int[8];
+        final int count = this.board.neighbours(this.indexOf(cell.getX(), cell.getY()), neighbours);
+        return Arrays.stream(neighbours, 0, count).mapToObj(this.board::toCell);
+    }
+
+    private boolean hasBombsPlaced() {
+        return this.board != null && !this.pendingBombs;
     }
 
     private void accumulateTimePaused() {
@@ -136,19 +363,31 @@ public class MineSweeper {
         this.timePaused = this.timePaused + diffSeconds;
     }
 
-    private long calculateValue(final Cell aCell) {
-        Stream<Cell> filtered = this.getCells().stream().filter(other -> aCell.isAdjacentTo(other) && other.isBomb());
-        return filtered.count();
+    private void validateParameters() {
+        if (this.columns <= 0 || this.rows <=0 || this.bombs<=0) {
+            throw new MinesweeperApiException(
+                    "Invalid request. Columns, Rows and Bombs should be greater that 0");
+        }
+
+        if (this.columns * this.rows <= this.bombs) {
+            throw new MinesweeperApiException(
+                    "Invalid request. Amount of bombs should be less than total amount of cells");
+        }
+
+        if (this.seed == null) {
+            this.seed = ThreadLocalRandom.current().nextLong();
+        }
     }
 
-    private void recognizeAdjacentCells(Cell aCell) {
-        getAdjacentCellsStream(aCell).filter(adjCell -> !adjCell.isRecognized() && !adjCell.isBomb())
-                .forEach(adjEmptyCell -> {
-                    adjEmptyCell.setRecognized(true);
-                    if (adjEmptyCell.getValue() == 0) {
-                        recognizeAdjacentCells(adjEmptyCell);
-                    }
-                });
+    private int indexOf(int x, int y) {
+        if (this.board == null && this.pendingBombs) {
+            // A lazy game gets its (still empty) board on its first move
+            this.board = new Board(this.rows, this.columns);
+        }
+        if (this.board == null || !this.board.contains(x, y)) {
+            throw new MinesweeperApiException("Requested cell is out of index");
+        }
+        return this.board.index(x, y);
     }
 
 }
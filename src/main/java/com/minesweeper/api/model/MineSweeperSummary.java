@@ -0,0 +1,54 @@
+package com.minesweeper.api.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Read-only view of a game, mapped from the denormalized attributes of the games table. It never loads the board, so
+ * it is what listings are built from.
+ */
+@DynamoDBTable(tableName = "Minesweeper.Games")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MineSweeperSummary {
+
+    @DynamoDBHashKey(attributeName = "id")
+    private String id;
+
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = MineSweeper.USER_INDEX, attributeName = "userId")
+    private String userId;
+
+    @DynamoDBAttribute(attributeName = "rows")
+    private int rows;
+
+    @DynamoDBAttribute(attributeName = "columns")
+    private int columns;
+
+    @DynamoDBAttribute(attributeName = "bombs")
+    private int bombs;
+
+    @DynamoDBTyped(DynamoDBMapperFieldModel.DynamoDBAttributeType.S)
+    @DynamoDBAttribute(attributeName = "status")
+    private Status status;
+
+    @DynamoDBTyped(DynamoDBMapperFieldModel.DynamoDBAttributeType.S)
+    @DynamoDBAttribute(attributeName = "timeConsumed")
+    private long timeSpent;
+
+    @DynamoDBAttribute(attributeName = "progress")
+    private int progress;
+
+    @DynamoDBAttribute(attributeName = "creationTime")
+    private Date creationTime;
+
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = MineSweeper.USER_INDEX, attributeName = "lastUpdate")
+    private Date lastUpdate;
+
+}
@@ -0,0 +1,232 @@
+package com.minesweeper.api.model.chunk;
+
+import com.minesweeper.api.model.Cell;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Grid split into {@link Tile}s of {@value Tile#SIZE}x{@value Tile#SIZE} cells, for boards too big to be held as a
+ * single {@link com.minesweeper.api.model.Board}. Bombs are never stored: every cell is a bomb with probability
+ * {@code density}, drawn from a generator seeded with the game seed and the tile coordinates, so any tile can be
+ * generated on its own and always gets the same bombs. Tiles are requested from the {@link TileSource} only when a
+ * move reaches them.
+ * <p>
+ * Cells are addressed by their global {@code (x, y)} coordinates. A board with 0 rows and columns is unbounded.
+ */
+public class ChunkedBoard {
+
+    private static final int INITIAL_QUEUE_CAPACITY = 1024;
+
+    // Bomb layouts are cheap to generate but a flood fill asks for the same few tiles over and over
+    private static final int LAYOUT_CACHE_SIZE = 64;
+
+    private final long seed;
+    private final double density;
+    private final int rows;
+    private final int columns;
+    private final TileSource tiles;
+
+    private final Map<Long, long[]> layouts = new LinkedHashMap<>(LAYOUT_CACHE_SIZE * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, long[]> eldest) {
+            return size() > LAYOUT_CACHE_SIZE;
+        }
+    };
+
+    // The 3x3 area around the first click never holds bombs
+    private boolean safeZone;
+    private int safeX;
+    private int safeY;
+
+    // Last tile and bomb layout looked up, consecutive cells are mostly in the same tile
+    private Tile lastTile;
+    private long lastTileKey;
+    private long[] lastLayout;
+    private long lastLayoutKey;
+
+    public ChunkedBoard(final long seed, final double density, final int rows, final int columns,
+                        final TileSource tiles) {
+        this.seed = seed;
+        this.density = density;
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles;
+    }
+
+    public static long pack(final int x, final int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(final long cell) {
+        return (int) (cell >> 32);
+    }
+
+    public static int unpackY(final long cell) {
+        return (int) cell;
+    }
+
+    public boolean isBounded() {
+        return this.rows > 0 && this.columns > 0;
+    }
+
+    public boolean contains(final int x, final int y) {
+        return !isBounded() || (x >= 0 && x < this.rows && y >= 0 && y < this.columns);
+    }
+
+    public void setSafeCell(final int x, final int y) {
+        this.safeZone = true;
+        this.safeX = x;
+        this.safeY = y;
+    }
+
+    public boolean isBomb(final int x, final int y) {
+        if (!contains(x, y)) {
+            return false;
+        }
+        if (this.safeZone && Math.abs(x - this.safeX) <= 1 && Math.abs(y - this.safeY) <= 1) {
+            return false;
+        }
+        final long[] layout = layout(Math.floorDiv(x, Tile.SIZE), Math.floorDiv(y, Tile.SIZE));
+        final int cell = cellOf(x, y);
+        return (layout[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * How many bombs the cell has near. Neighbours in other tiles are looked up in their bomb layout, which does
+     * not require loading those tiles.
+     */
+    public int getValue(final int x, final int y) {
+        int value = 0;
+        for (int i = x - 1; i <= x + 1; i++) {
+            for (int j = y - 1; j <= y + 1; j++) {
+                if ((i != x || j != y) && isBomb(i, j)) {
+                    value++;
+                }
+            }
+        }
+        return value;
+    }
+
+    public boolean isFlagged(final int x, final int y) {
+        return tileOf(x, y).isFlagged(cellOf(x, y));
+    }
+
+    public boolean isRecognized(final int x, final int y) {
+        return tileOf(x, y).isRecognized(cellOf(x, y));
+    }
+
+    /**
+     * @return whether the cell is flagged after the call
+     */
+    public boolean toggleFlag(final int x, final int y) {
+        return tileOf(x, y).toggleFlag(cellOf(x, y));
+    }
+
+    /**
+     * Recognizes the cell and, when it has no bombs near, flood fills the empty region around it. The fill is
+     * iterative and loads the tiles it crosses as it reaches them. It stops once {@code maxCells} cells have been
+     * recognized, leaving the rest of the region hidden, so a sparse unbounded board can not reveal forever; clicking
+     * one of the cells on its border continues it.
+     *
+     * @return how many cells became recognized by this call
+     */
+    public int reveal(final int x, final int y, final int maxCells, final LongConsumer onRecognized) {
+        if (isRecognized(x, y)) {
+            return 0;
+        }
+
+        long[] queue = new long[INITIAL_QUEUE_CAPACITY];
+        int head = 0;
+        int tail = 0;
+        tileOf(x, y).recognize(cellOf(x, y));
+        queue[tail++] = pack(x, y);
+
+        // Cells are queued as soon as they are recognized, so none is queued twice; they are only reported (and
+        // their neighbours expanded) when dequeued
+        while (head < tail && head < maxCells) {
+            final long cell = queue[head++];
+            final int cx = unpackX(cell);
+            final int cy = unpackY(cell);
+            if (onRecognized != null) {
+                onRecognized.accept(cell);
+            }
+            if (isBomb(cx, cy) || getValue(cx, cy) != 0) {
+                continue;
+            }
+
+            for (int i = cx - 1; i <= cx + 1; i++) {
+                for (int j = cy - 1; j <= cy + 1; j++) {
+                    if (!contains(i, j) || isRecognized(i, j) || isBomb(i, j)) {
+                        continue;
+                    }
+                    tileOf(i, j).recognize(cellOf(i, j));
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+                    queue[tail++] = pack(i, j);
+                }
+            }
+        }
+
+        // Cells queued past the limit are hidden again, they were never reported
+        for (int i = head; i < tail; i++) {
+            final int cx = unpackX(queue[i]);
+            final int cy = unpackY(queue[i]);
+            tileOf(cx, cy).hide(cellOf(cx, cy));
+        }
+        return head;
+    }
+
+    /**
+     * Builds the cell as a player is allowed to see it: value and bomb are only disclosed once it is recognized.
+     */
+    public Cell toVisibleCell(final int x, final int y) {
+        final boolean visible = isRecognized(x, y);
+        return Cell.builder().x(x).y(y).value(visible ? getValue(x, y) : 0).bomb(visible && isBomb(x, y))
+                .flagged(isFlagged(x, y)).recognized(visible).build();
+    }
+
+    private Tile tileOf(final int x, final int y) {
+        final int tileX = Math.floorDiv(x, Tile.SIZE);
+        final int tileY = Math.floorDiv(y, Tile.SIZE);
+        final long key = pack(tileX, tileY);
+        if (this.lastTile == null || this.lastTileKey != key) {
+            this.lastTile = this.tiles.tile(tileX, tileY);
+            this.lastTileKey = key;
+        }
+        return this.lastTile;
+    }
+
+    private static int cellOf(final int x, final int y) {
+        return Math.floorMod(x, Tile.SIZE) * Tile.SIZE + Math.floorMod(y, Tile.SIZE);
+    }
+
+    private long[] layout(final int tileX, final int tileY) {
+        final long key = pack(tileX, tileY);
+        if (this.lastLayout == null || this.lastLayoutKey != key) {
+            this.lastLayout = this.layouts.computeIfAbsent(key, ignored -> generateLayout(tileX, tileY));
+            this.lastLayoutKey = key;
+        }
+        return this.lastLayout;
+    }
+
+    /**
+     * Draws the bombs of a tile. The generator seed mixes the game seed with the tile coordinates, so layouts do not
+     * depend on the order in which tiles are generated.
+     */
+    private long[] generateLayout(final int tileX, final int tileY) {
+        final SplittableRandom random = new SplittableRandom(
+                this.seed ^ (tileX * 0x9E3779B97F4A7C15L) ^ (tileY * 0xC2B2AE3D27D4EB4FL));
+        final long[] layout = new long[Tile.CELLS / Long.SIZE];
+        for (int cell = 0; cell < Tile.CELLS; cell++) {
+            if (random.nextDouble() < this.density) {
+                layout[cell >>> 6] |= 1L << cell;
+            }
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,148 @@
+package com.minesweeper.api.model.chunk;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.MinesweeperApiException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Game played over a {@link ChunkedBoard}. The item only holds the game parameters and counters, the player's state
+ * lives in one {@link Tile} item per touched tile, so its size does not depend on the board dimensions.
+ * <p>
+ * The amount of bombs of a big board is never counted, so a chunked game is lost by clicking a bomb but it is never
+ * won.
+ */
+@DynamoDBTable(tableName = "Minesweeper.ChunkedGames")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChunkedMineSweeper {
+
+    @DynamoDBAutoGeneratedKey
+    @DynamoDBHashKey(attributeName = "id")
+    private String id;
+
+    @DynamoDBAttribute(attributeName = "userId")
+    private String userId;
+
+    // 0 rows and columns make an unbounded board
+    @DynamoDBAttribute(attributeName = "rows")
+    private int rows;
+
+    @DynamoDBAttribute(attributeName = "columns")
+    private int columns;
+
+    // Probability of every cell being a bomb
+    @DynamoDBAttribute(attributeName = "density")
+    private double density;
+
+    @JsonIgnore
+    @DynamoDBAttribute(attributeName = "seed")
+    private Long seed;
+
+    // First clicked cell, its neighbourhood is kept free of bombs. Null until the first click
+    @JsonIgnore
+    @DynamoDBAttribute(attributeName = "safeX")
+    private Integer safeX;
+
+    @JsonIgnore
+    @DynamoDBAttribute(attributeName = "safeY")
+    private Integer safeY;
+
+    @DynamoDBAttribute(attributeName = "recognizedCells")
+    private long recognizedCells;
+
+    @DynamoDBAttribute(attributeName = "flagsPlaced")
+    private long flagsPlaced;
+
+    @DynamoDBAttribute(attributeName = "moves")
+    private long moves;
+
+    @DynamoDBVersionAttribute(attributeName = "version")
+    private Long version;
+
+    @DynamoDBTyped(DynamoDBMapperFieldModel.DynamoDBAttributeType.S)
+    @DynamoDBAttribute(attributeName = "status")
+    private Status status;
+
+    @DynamoDBAttribute(attributeName = "creationTime")
+    @DynamoDBAutoGeneratedTimestamp(strategy = DynamoDBAutoGenerateStrategy.CREATE)
+    private Date creationTime;
+
+    @DynamoDBAttribute(attributeName = "lastUpdate")
+    @DynamoDBAutoGeneratedTimestamp(strategy = DynamoDBAutoGenerateStrategy.ALWAYS)
+    private Date lastUpdate;
+
+    public void init() {
+        if (this.rows < 0 || this.columns < 0 || (this.rows == 0) != (this.columns == 0)) {
+            throw new MinesweeperApiException(
+                    "Invalid request. Columns and Rows should be greater that 0, or both 0 for an unbounded board");
+        }
+
+        if (!(this.density > 0 && this.density < 1)) {
+            throw new MinesweeperApiException("Invalid request. Density should be greater than 0 and less than 1");
+        }
+
+        if (this.seed == null) {
+            this.seed = ThreadLocalRandom.current().nextLong();
+        }
+    }
+
+    /**
+     * Builds the board of this game over the given tiles.
+     */
+    public ChunkedBoard board(TileSource tiles) {
+        ChunkedBoard board = new ChunkedBoard(this.seed, this.density, this.rows, this.columns, tiles);
+        if (this.safeX != null && this.safeY != null) {
+            board.setSafeCell(this.safeX, this.safeY);
+        }
+        return board;
+    }
+
+    public void flagCell(ChunkedBoard board, int x, int y, List<Cell> changes) {
+        this.validateCell(board, x, y);
+        this.flagsPlaced += board.toggleFlag(x, y) ? 1 : -1;
+        this.moves++;
+        changes.add(board.toVisibleCell(x, y));
+    }
+
+    public void recognizeCell(ChunkedBoard board, int x, int y, int maxCells, List<Cell> changes) {
+        if (!this.getStatus().equals(Status.ACTIVE)) {
+            throw new MinesweeperApiException("You could not do a move in a non active game");
+        }
+        this.validateCell(board, x, y);
+        if (this.safeX == null) {
+            this.safeX = x;
+            this.safeY = y;
+            board.setSafeCell(x, y);
+        }
+
+        // Recognizes the cell, and all the empty region around it when it has no bombs near
+        final int revealed = board.reveal(x, y, maxCells, cell ->
+                changes.add(board.toVisibleCell(ChunkedBoard.unpackX(cell), ChunkedBoard.unpackY(cell))));
+        this.moves++;
+
+        if (board.isBomb(x, y)) {
+            // game over
+            this.setStatus(Status.GAME_OVER);
+            return;
+        }
+        this.recognizedCells += revealed;
+    }
+
+    private void validateCell(ChunkedBoard board, int x, int y) {
+        if (!board.contains(x, y)) {
+            throw new MinesweeperApiException("Requested cell is out of index");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.minesweeper.api.model.chunk;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIgnore;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@value #SIZE}x{@value #SIZE} square of a chunked board. Only the player's state (flags and recognized cells) is
+ * stored, bombs are regenerated from the game seed, so a tile item is a few hundred bytes.
+ */
+@DynamoDBTable(tableName = "Minesweeper.Tiles")
+public class Tile {
+
+    public static final int SIZE = 32;
+
+    static final int CELLS = SIZE * SIZE;
+    private static final int WORDS = CELLS / Long.SIZE;
+
+    private String gameId;
+    private String tileKey;
+
+    private final long[] flagged = new long[WORDS];
+    private final long[] recognized = new long[WORDS];
+    private boolean dirty;
+
+    public Tile() {
+    }
+
+    public Tile(final String gameId, final int tileX, final int tileY) {
+        this.gameId = gameId;
+        this.tileKey = key(tileX, tileY);
+    }
+
+    public static String key(final int tileX, final int tileY) {
+        return tileX + ":" + tileY;
+    }
+
+    @DynamoDBHashKey(attributeName = "gameId")
+    public String getGameId() {
+        return this.gameId;
+    }
+
+    public void setGameId(final String gameId) {
+        this.gameId = gameId;
+    }
+
+    @DynamoDBRangeKey(attributeName = "tileKey")
+    public String getTileKey() {
+        return this.tileKey;
+    }
+
+    public void setTileKey(final String tileKey) {
+        this.tileKey = tileKey;
+    }
+
+    /**
+     * Flagged bits followed by recognized bits, one bit per cell in row-major order.
+     */
+    @DynamoDBAttribute(attributeName = "state")
+    public byte[] getState() {
+        final ByteBuffer buffer = ByteBuffer.allocate(WORDS * 2 * Long.BYTES);
+        buffer.asLongBuffer().put(this.flagged).put(this.recognized);
+        return buffer.array();
+    }
+
+    public void setState(final byte[] state) {
+        final ByteBuffer buffer = ByteBuffer.wrap(state);
+        buffer.asLongBuffer().get(this.flagged).get(this.recognized);
+    }
+
+    @DynamoDBIgnore
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    public void markClean() {
+        this.dirty = false;
+    }
+
+    boolean isFlagged(final int cell) {
+        return (this.flagged[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    boolean isRecognized(final int cell) {
+        return (this.recognized[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    boolean toggleFlag(final int cell) {
+        this.flagged[cell >>> 6] ^= 1L << cell;
+        this.dirty = true;
+        return isFlagged(cell);
+    }
+
+    void recognize(final int cell) {
+        this.recognized[cell >>> 6] |= 1L << cell;
+        this.dirty = true;
+    }
+
+    void hide(final int cell) {
+        this.recognized[cell >>> 6] &= ~(1L << cell);
+    }
+}
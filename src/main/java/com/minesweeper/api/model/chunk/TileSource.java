@@ -0,0 +1,11 @@
+package com.minesweeper.api.model.chunk;
+
+/**
+ * Supplies the tiles of a chunked board, loading or creating them on demand.
+ */
+@FunctionalInterface
+public interface TileSource {
+
+    Tile tile(int tileX, int tileY);
+
+}
@@ -0,0 +1,9 @@
+package com.minesweeper.api.model.exception;
+
+public class GameConflictException extends MinesweeperApiException {
+
+    public GameConflictException(String message) {
+        super(message);
+    }
+
+}
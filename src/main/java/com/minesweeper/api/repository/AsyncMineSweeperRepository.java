@@ -0,0 +1,66 @@
+package com.minesweeper.api.repository;
+
+import com.minesweeper.api.model.MineSweeper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking reads of the games: calls are run on a dedicated pool of I/O threads and completed through a
+ * {@link CompletableFuture}, so the request thread is released while DynamoDB answers. The pool is sized to the
+ * client connection pool, there is no point in having more calls in flight than connections. Its threads are only
+ * started by the first reads.
+ * <p>
+ * Calls go through {@link MineSweeperRepository}, so they keep the mapper semantics and the board conversion. Writes
+ * are not offered: moves are written holding the game lock, through the session cache.
+ */
+@Repository
+public class AsyncMineSweeperRepository {
+
+    private final MineSweeperRepository mineSweeperRepository;
+    private final Executor executor;
+
+    @Autowired
+    public AsyncMineSweeperRepository(final MineSweeperRepository mineSweeperRepository,
+                                      @Value("${amazon.dynamodb.max-connections:50}") final int threads) {
+        this(mineSweeperRepository, ioThreads(threads));
+    }
+
+    AsyncMineSweeperRepository(final MineSweeperRepository mineSweeperRepository, final Executor executor) {
+        this.mineSweeperRepository = mineSweeperRepository;
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.executor instanceof ExecutorService) {
+            ((ExecutorService) this.executor).shutdown();
+        }
+    }
+
+    public CompletableFuture<Optional<MineSweeper>> findById(final String mineSweeperId) {
+        return CompletableFuture.supplyAsync(() -> this.mineSweeperRepository.findById(mineSweeperId), this.executor);
+    }
+
+    public CompletableFuture<Optional<MineSweeper>> findVersionById(final String mineSweeperId) {
+        return CompletableFuture.supplyAsync(() -> this.mineSweeperRepository.findVersionById(mineSweeperId),
+                this.executor);
+    }
+
+    private static ExecutorService ioThreads(final int threads) {
+        final AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dynamodb-io-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package com.minesweeper.api.repository;
+
+import com.minesweeper.api.model.chunk.ChunkedMineSweeper;
+import org.springframework.data.repository.CrudRepository;
+
+public interface ChunkedMineSweeperRepository extends CrudRepository<ChunkedMineSweeper, String> {
+
+}
@@ -0,0 +1,76 @@
+package com.minesweeper.api.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBDeleteExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBSaveExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ConditionalOperator;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.minesweeper.api.model.GameMove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Move log items, keyed by game id and sequence number.
+ */
+@Repository
+public class GameMoveRepository {
+
+    @Autowired
+    private DynamoDBMapper dynamoDBMapper;
+
+    /**
+     * Writes the move unless its sequence number is already taken, in which case another writer appended a move to
+     * the game meanwhile and a {@link com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException} is
+     * thrown.
+     */
+    public void append(GameMove move) {
+        DynamoDBSaveExpression notTaken = new DynamoDBSaveExpression()
+                .withExpected(Map.of("seq", new ExpectedAttributeValue(false)));
+        this.dynamoDBMapper.save(move, notTaken);
+    }
+
+    /**
+     * Writes the fence unless its sequence number is taken by a move, a fence already there is written again.
+     */
+    public void fence(GameMove fence) {
+        DynamoDBSaveExpression notAMove = new DynamoDBSaveExpression()
+                .withExpected(Map.of("seq", new ExpectedAttributeValue(false),
+                        "fence", new ExpectedAttributeValue(new AttributeValue().withBOOL(true))))
+                .withConditionalOperator(ConditionalOperator.OR);
+        this.dynamoDBMapper.save(fence, notAMove);
+    }
+
+    /**
+     * Deletes the fence at {@code seq}, if there is one.
+     */
+    public void removeFence(String gameId, long seq) {
+        GameMove fence = GameMove.builder().gameId(gameId).seq(seq).build();
+        DynamoDBDeleteExpression onlyAFence = new DynamoDBDeleteExpression()
+                .withExpected(Map.of("fence", new ExpectedAttributeValue(new AttributeValue().withBOOL(true))));
+        try {
+            this.dynamoDBMapper.delete(fence, onlyAFence);
+        } catch (ConditionalCheckFailedException e) {
+            // Nothing to remove
+        }
+    }
+
+    /**
+     * Moves of the game with a sequence number greater than {@code seq}, in order.
+     */
+    public List<GameMove> findAfter(String gameId, long seq) {
+        DynamoDBQueryExpression<GameMove> query = new DynamoDBQueryExpression<GameMove>()
+                .withConsistentRead(true)
+                .withKeyConditionExpression("gameId = :gameId and seq > :seq")
+                .withExpressionAttributeValues(Map.of(
+                        ":gameId", new AttributeValue().withS(gameId),
+                        ":seq", new AttributeValue().withN(String.valueOf(seq))));
+        return new ArrayList<>(this.dynamoDBMapper.query(GameMove.class, query));
+    }
+}
@@ -1,14 +1,13 @@
 package com.minesweeper.api.repository;
 
 import com.minesweeper.api.model.MineSweeper;
-import org.socialsignin.spring.data.dynamodb.repository.EnableScan;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
 
-@EnableScan
-public interface MineSweeperRepository extends CrudRepository<MineSweeper, String> {
+public interface MineSweeperRepository extends CrudRepository<MineSweeper, String>, MineSweeperRepositoryCustom {
 
+    // Resolved as a query on the userId index, scans are not enabled for this table
     List<MineSweeper> getMineSweepersByUserId(String userId);
 
 }
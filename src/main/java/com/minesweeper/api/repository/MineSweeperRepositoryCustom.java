@@ -0,0 +1,30 @@
+package com.minesweeper.api.repository;
+
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
+import com.minesweeper.api.model.MineSweeper;
+
+import java.util.Optional;
+
+public interface MineSweeperRepositoryCustom {
+
+    /**
+     * Queries a page of the user's games, most recently updated first, through the userId index. The games are
+     * projected without their board. {@code cursor} is the {@code nextCursor} of the previous page, or null for
+     * the first one.
+     */
+    MineSweeperPage findPageByUserId(String userId, String cursor, int limit);
+
+    /**
+     * Same as {@link #findPageByUserId(String, String, int)}, mapped to summaries. Only the denormalized summary
+     * attributes are read.
+     */
+    MineSweeperSummaryPage findSummaryPageByUserId(String userId, String cursor, int limit);
+
+    /**
+     * Reads only the attributes the game ETag is derived from, so checking whether a client has the current game
+     * does not read nor unmarshal the board.
+     */
+    Optional<MineSweeper> findVersionById(String mineSweeperId);
+
+}
@@ -0,0 +1,129 @@
+package com.minesweeper.api.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.MineSweeperSummary;
+import com.minesweeper.api.model.exception.MinesweeperApiException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class MineSweeperRepositoryImpl implements MineSweeperRepositoryCustom {
+
+    // Every attribute but the board, so listing games never reads nor unmarshals it
+    private static final List<String> GAME_ATTRIBUTES = List.of("id", "userId", "rows", "columns", "bombs",
+            "status", "timeConsumed", "creationTime", "lastUpdate", "hiddenSafeCells", "flagsPlaced", "progress",
+            "moves");
+
+    private static final List<String> SUMMARY_ATTRIBUTES = List.of("id", "userId", "rows", "columns", "bombs",
+            "status", "timeConsumed", "progress", "creationTime", "lastUpdate");
+
+    private static final List<String> VERSION_ATTRIBUTES = List.of("id", "version", "revision", "moves",
+            "status", "timeConsumed");
+
+    private static final TypeReference<Map<String, String>> CURSOR_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private DynamoDBMapper dynamoDBMapper;
+
+    @Override
+    public MineSweeperPage findPageByUserId(String userId, String cursor, int limit) {
+        QueryResultPage<MineSweeper> page = this.queryUserIndex(MineSweeper.class, GAME_ATTRIBUTES, userId, cursor,
+                limit);
+        return MineSweeperPage.builder().games(page.getResults())
+                .nextCursor(this.encodeCursor(page.getLastEvaluatedKey())).build();
+    }
+
+    @Override
+    public MineSweeperSummaryPage findSummaryPageByUserId(String userId, String cursor, int limit) {
+        QueryResultPage<MineSweeperSummary> page = this.queryUserIndex(MineSweeperSummary.class, SUMMARY_ATTRIBUTES,
+                userId, cursor, limit);
+        return MineSweeperSummaryPage.builder().games(page.getResults())
+                .nextCursor(this.encodeCursor(page.getLastEvaluatedKey())).build();
+    }
+
+    @Override
+    public Optional<MineSweeper> findVersionById(String mineSweeperId) {
+        Map<String, String> names = new HashMap<>();
+        VERSION_ATTRIBUTES.forEach(attribute -> names.put("#" + attribute, attribute));
+
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":id", new AttributeValue().withS(mineSweeperId));
+
+        // A query on the hash key, since loading an item by key can not project its attributes
+        DynamoDBQueryExpression<MineSweeper> query = new DynamoDBQueryExpression<MineSweeper>()
+                .withConsistentRead(true)
+                .withKeyConditionExpression("#id = :id")
+                .withProjectionExpression(String.join(", ", names.keySet()))
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values)
+                .withLimit(1);
+
+        return this.dynamoDBMapper.queryPage(MineSweeper.class, query).getResults().stream().findFirst();
+    }
+
+    private <T> QueryResultPage<T> queryUserIndex(Class<T> type, List<String> attributes, String userId,
+                                                  String cursor, int limit) {
+        Map<String, String> names = new HashMap<>();
+        attributes.forEach(attribute -> names.put("#" + attribute, attribute));
+
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":userId", new AttributeValue().withS(userId));
+
+        DynamoDBQueryExpression<T> query = new DynamoDBQueryExpression<T>()
+                .withIndexName(MineSweeper.USER_INDEX)
+                .withConsistentRead(false)
+                .withKeyConditionExpression("#userId = :userId")
+                .withProjectionExpression(String.join(", ", names.keySet()))
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values)
+                .withScanIndexForward(false)
+                .withLimit(limit)
+                .withExclusiveStartKey(this.decodeCursor(cursor));
+
+        return this.dynamoDBMapper.queryPage(type, query);
+    }
+
+    private String encodeCursor(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> key = lastEvaluatedKey.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getS()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(this.objectMapper.writeValueAsBytes(key));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode page cursor", e);
+        }
+    }
+
+    private Map<String, AttributeValue> decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            Map<String, String> key = this.objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), CURSOR_TYPE);
+            return key.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> new AttributeValue().withS(entry.getValue())));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new MinesweeperApiException("Invalid page cursor");
+        }
+    }
+}
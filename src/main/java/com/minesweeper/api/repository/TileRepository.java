@@ -0,0 +1,32 @@
+package com.minesweeper.api.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.minesweeper.api.model.chunk.Tile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tiles are keyed by game id and tile coordinates, a composite key which is read and written with the mapper
+ * directly.
+ */
+@Repository
+public class TileRepository {
+
+    @Autowired
+    private DynamoDBMapper dynamoDBMapper;
+
+    public Optional<Tile> findById(String gameId, String tileKey) {
+        return Optional.ofNullable(this.dynamoDBMapper.load(Tile.class, gameId, tileKey));
+    }
+
+    public void saveAll(Collection<Tile> tiles) {
+        List<DynamoDBMapper.FailedBatch> failed = this.dynamoDBMapper.batchSave(tiles);
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Tiles could not be saved", failed.get(0).getException());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.minesweeper.api.service;
+
+import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.ChunkedMineSweeperDelta;
+import com.minesweeper.api.dto.ChunkedMineSweeperRequest;
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.chunk.ChunkedMineSweeper;
+
+import java.util.List;
+
+public interface ChunkedMineSweeperService {
+
+    ChunkedMineSweeper createMineSweeper(ChunkedMineSweeperRequest request);
+    ChunkedMineSweeper getMineSweeperById(String mineSweeperId);
+    List<Cell> getRegion(String mineSweeperId, int x, int y, int rows, int columns);
+    ChunkedMineSweeperDelta cellAction(CellRequest cellRequest, CellAction action);
+
+}
@@ -1,11 +1,19 @@
 package com.minesweeper.api.service;
 
+import com.minesweeper.api.dto.BatchCellRequest;
+import com.minesweeper.api.dto.BatchMoveResponse;
 import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.MineSweeperDelta;
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
 import com.minesweeper.api.dto.MineSweeperRequest;
 import com.minesweeper.api.model.CellAction;
 import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.service.replay.ReplayResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface MineSweeperService {
 
@@ -13,8 +21,17 @@ public interface MineSweeperService {
     MineSweeper createMineSweeper(MineSweeperRequest request);
     MineSweeper saveMineSweeper(MineSweeper mineSweeper);
     List<MineSweeper> getMinesweepersByUserId(String userId);
+    MineSweeperPage getMinesweepersPageByUserId(String userId, String cursor, int limit);
+    MineSweeperSummaryPage getMinesweeperSummariesByUserId(String userId, String cursor, int limit);
     MineSweeper getMineSweeperById(String mineSweeperId);
+    String getMineSweeperETag(String mineSweeperId);
+    CompletableFuture<MineSweeper> getMineSweeperByIdAsync(String mineSweeperId);
+    CompletableFuture<String> getMineSweeperETagAsync(String mineSweeperId);
     MineSweeper pauseResumeMineSweeper(String mineSweeperId);
     MineSweeper cellAction(CellRequest cellRequest, CellAction action);
+    MineSweeperDelta cellActionDelta(CellRequest cellRequest, CellAction action);
+    BatchMoveResponse cellActions(BatchCellRequest batchRequest);
+    SseEmitter streamMineSweeper(String mineSweeperId);
+    ReplayResult verifyMineSweeper(String mineSweeperId);
 
 }
@@ -0,0 +1,251 @@
+package com.minesweeper.api.service.cache;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.minesweeper.api.config.GameMetrics;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.repository.MineSweeperRepository;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind cache of the games being played. Moves are applied to the cached game and only the games that
+ * changed are written to the repository, once per game however many moves it received, every flush interval (the
+ * durability window), when they are evicted, when they reach a final status and on shutdown.
+ * <p>
+ * A changed game stays in {@code dirtyGames} until it is written, even once evicted, and it is served from there
+ * meanwhile: loading the stored item instead would apply the next moves over an older state.
+ * <p>
+ * It is disabled by default: every instance keeps its own cache, so it is only safe when all the requests of a
+ * game are routed to the same instance.
+ */
+@Component
+@Slf4j
+public class GameSessionCache {
+
+    private final MineSweeperRepository mineSweeperRepository;
+    private final GameLockRegistry gameLockRegistry;
+    private final boolean enabled;
+    private final Cache<String, MineSweeper> games;
+    private final Map<String, MineSweeper> dirtyGames = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedGames = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder flushConflicts = new LongAdder();
+
+    @Autowired
+    public GameSessionCache(final MineSweeperRepository mineSweeperRepository,
+                            final GameLockRegistry gameLockRegistry,
+                            @Value("${minesweeper.session-cache.enabled:false}") final boolean enabled,
+                            @Value("${minesweeper.session-cache.maximum-size:10000}") final long maximumSize,
+                            @Value("${minesweeper.session-cache.idle-timeout:PT10M}") final Duration idleTimeout) {
+        this(mineSweeperRepository, gameLockRegistry, enabled, maximumSize, idleTimeout, ForkJoinPool.commonPool());
+    }
+
+    GameSessionCache(final MineSweeperRepository mineSweeperRepository, final GameLockRegistry gameLockRegistry,
+                     final boolean enabled, final long maximumSize, final Duration idleTimeout,
+                     final Executor executor) {
+        this.mineSweeperRepository = mineSweeperRepository;
+        this.gameLockRegistry = gameLockRegistry;
+        this.enabled = enabled;
+        // Evicted games are written from Caffeine's executor, never from a request thread that may hold a game lock
+        this.games = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterAccess(idleTimeout)
+                .executor(executor).removalListener(this::onRemoval).build();
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public Optional<MineSweeper> findById(final String mineSweeperId) {
+        if (!this.enabled) {
+            return this.load(mineSweeperId);
+        }
+
+        MineSweeper cached = this.games.getIfPresent(mineSweeperId);
+        if (cached != null) {
+            this.hits.increment();
+            return Optional.of(cached);
+        }
+
+        MineSweeper pending = this.dirtyGames.get(mineSweeperId);
+        if (pending != null) {
+            // Evicted before its write completed, it is still the latest state of the game
+            this.hits.increment();
+            this.games.put(mineSweeperId, pending);
+            return Optional.of(pending);
+        }
+
+        this.misses.increment();
+        Optional<MineSweeper> stored = this.load(mineSweeperId);
+        stored.ifPresent(mineSweeper -> this.games.put(mineSweeperId, mineSweeper));
+        return stored;
+    }
+
+    public MineSweeper save(final MineSweeper mineSweeper) {
+        if (!this.enabled) {
+            return this.store(mineSweeper);
+        }
+
+        if (Objects.isNull(mineSweeper.getId())) {
+            // New games are written straight away, the repository assigns their id
+            MineSweeper saved = this.store(mineSweeper);
+            this.games.put(saved.getId(), saved);
+            return saved;
+        }
+
+        if (isFinished(mineSweeper)) {
+            return this.release(mineSweeper);
+        }
+
+        this.games.put(mineSweeper.getId(), mineSweeper);
+        this.dirtyGames.put(mineSweeper.getId(), mineSweeper);
+        return mineSweeper;
+    }
+
+    public void evict(final String mineSweeperId) {
+        this.dirtyGames.remove(mineSweeperId);
+        this.games.invalidate(mineSweeperId);
+    }
+
+    @Scheduled(fixedDelayString = "${minesweeper.session-cache.flush-interval:PT5S}")
+    public void flush() {
+        if (this.dirtyGames.isEmpty()) {
+            return;
+        }
+
+        this.flushes.increment();
+        this.dirtyGames.forEach(this::write);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing game session cache before shutdown");
+        this.flush();
+    }
+
+    public SessionCacheStatistics getStatistics() {
+        return SessionCacheStatistics.builder().hits(this.hits.sum()).misses(this.misses.sum())
+                .flushes(this.flushes.sum()).flushedGames(this.flushedGames.sum())
+                .flushFailures(this.flushFailures.sum()).flushConflicts(this.flushConflicts.sum()).size(this.games.estimatedSize())
+                .dirtyGames(this.dirtyGames.size()).build();
+    }
+
+    private void onRemoval(final String mineSweeperId, final MineSweeper mineSweeper, final RemovalCause cause) {
+        if (cause.wasEvicted() && mineSweeperId != null) {
+            MineSweeper dirty = this.dirtyGames.get(mineSweeperId);
+            if (dirty != null) {
+                this.flushes.increment();
+                this.write(mineSweeperId, dirty);
+            }
+        }
+    }
+
+    /**
+     * Writes the game and only then clears it from the dirty games, both under the game lock: moves are applied
+     * holding it as well, so the game can not change between the write and the clear. Games are written one by one,
+     * batch writes would skip the version check of each game.
+     */
+    private void write(final String mineSweeperId, final MineSweeper mineSweeper) {
+        try {
+            this.gameLockRegistry.withLock(mineSweeperId, () -> {
+                this.store(mineSweeper);
+                // A newer state saved meanwhile is kept dirty
+                boolean written = this.dirtyGames.remove(mineSweeperId, mineSweeper);
+                if (written && isFinished(mineSweeper)) {
+                    this.games.invalidate(mineSweeperId);
+                }
+                return written;
+            });
+            this.flushedGames.increment();
+        } catch (ConditionalCheckFailedException e) {
+            // Another instance wrote the game meanwhile, its state wins and the cached copy is dropped
+            log.error("Discarding cached minesweeper id: ".concat(mineSweeperId).concat(", it was modified concurrently"));
+            this.flushConflicts.increment();
+            this.dirtyGames.remove(mineSweeperId, mineSweeper);
+            this.games.invalidate(mineSweeperId);
+        } catch (RuntimeException e) {
+            // It stays dirty, so the next flush retries
+            log.error("Could not flush minesweeper id: ".concat(mineSweeperId).concat(": ").concat(String.valueOf(e.getMessage())));
+            this.flushFailures.increment();
+        }
+    }
+
+    /**
+     * Finished games will not change anymore, so they are written and released. They are only released once the
+     * write succeeds: a game that could not be written stays dirty and cached, and the next flush retries it.
+     */
+    private MineSweeper release(final MineSweeper mineSweeper) {
+        final String mineSweeperId = mineSweeper.getId();
+        this.games.put(mineSweeperId, mineSweeper);
+        this.dirtyGames.put(mineSweeperId, mineSweeper);
+        try {
+            MineSweeper saved = this.store(mineSweeper);
+            this.dirtyGames.remove(mineSweeperId, mineSweeper);
+            this.games.invalidate(mineSweeperId);
+            return saved;
+        } catch (ConditionalCheckFailedException e) {
+            // Another instance wrote the game meanwhile, the caller decides how to resolve it
+            this.evict(mineSweeperId);
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Could not write finished minesweeper id: ".concat(mineSweeperId).concat(": ")
+                    .concat(String.valueOf(e.getMessage())));
+            this.flushFailures.increment();
+            return mineSweeper;
+        }
+    }
+
+    private Optional<MineSweeper> load(final String mineSweeperId) {
+        final long start = System.nanoTime();
+        String outcome = GameMetrics.ERROR;
+        MineSweeper loaded = null;
+        try {
+            Optional<MineSweeper> stored = this.mineSweeperRepository.findById(mineSweeperId);
+            loaded = stored.orElse(null);
+            outcome = stored.isPresent() ? GameMetrics.SUCCESS : GameMetrics.NOT_FOUND;
+            return stored;
+        } finally {
+            GameMetrics.recordRepository("findById", loaded, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private MineSweeper store(final MineSweeper mineSweeper) {
+        final long start = System.nanoTime();
+        String outcome = GameMetrics.ERROR;
+        try {
+            MineSweeper saved = this.mineSweeperRepository.save(mineSweeper);
+            outcome = GameMetrics.SUCCESS;
+            return saved;
+        } catch (ConditionalCheckFailedException e) {
+            outcome = GameMetrics.CONFLICT;
+            throw e;
+        } finally {
+            GameMetrics.recordRepository("save", mineSweeper, outcome, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isFinished(final MineSweeper mineSweeper) {
+        return Status.GAME_OVER.equals(mineSweeper.getStatus()) || Status.WIN.equals(mineSweeper.getStatus());
+    }
+}
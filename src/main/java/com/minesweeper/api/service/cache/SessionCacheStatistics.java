@@ -0,0 +1,19 @@
+package com.minesweeper.api.service.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SessionCacheStatistics {
+
+    private long hits;
+    private long misses;
+    private long flushes;
+    private long flushedGames;
+    private long flushFailures;
+    private long flushConflicts;
+    private long size;
+    private long dirtyGames;
+
+}
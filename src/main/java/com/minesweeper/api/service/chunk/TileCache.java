@@ -0,0 +1,129 @@
+package com.minesweeper.api.service.chunk;
+
+import com.minesweeper.api.model.chunk.Tile;
+import com.minesweeper.api.repository.TileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Least recently used tiles of the chunked games. Tiles are loaded from the repository on a miss, and created empty
+ * when they were never touched. Changed tiles are written through after every move, so evicting one never loses
+ * state.
+ * <p>
+ * The cached tiles of a game are tagged with the game version they are current at. Another instance playing the same
+ * game bumps its version, so tiles requested for any other version than the tagged one are dropped and read again,
+ * instead of writing stale tiles back over the other instance's moves.
+ * <p>
+ * Tiles are mutated in place, callers must hold the lock of their game while applying a move.
+ */
+@Component
+public class TileCache {
+
+    private final TileRepository tileRepository;
+    private final Map<String, Tile> tiles;
+    // Game version the cached tiles of every game are current at, a game missing here has no cached tiles
+    private final Map<String, Long> versions;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TileCache(final TileRepository tileRepository,
+                     @Value("${minesweeper.tiles.cache-size:4096}") final int maximumSize) {
+        this.tileRepository = tileRepository;
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Tile> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                if (size() > maximumSize) {
+                    evictTiles(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Tile of the game as of the given game version.
+     */
+    public Tile get(final String gameId, final Long version, final int tileX, final int tileY) {
+        final String tileKey = Tile.key(tileX, tileY);
+        final String key = gameId.concat("/").concat(tileKey);
+        synchronized (this.tiles) {
+            if (!Objects.equals(this.versions.get(gameId), version)) {
+                // The game changed since its tiles were cached, possibly on another instance
+                this.evictTiles(gameId);
+                this.versions.put(gameId, version);
+            }
+            final Tile cached = this.tiles.get(key);
+            if (cached != null) {
+                this.hits.increment();
+                return cached;
+            }
+        }
+
+        this.misses.increment();
+        final Tile tile = this.tileRepository.findById(gameId, tileKey)
+                .orElseGet(() -> new Tile(gameId, tileX, tileY));
+        synchronized (this.tiles) {
+            // Another request of the same game may have loaded it meanwhile
+            return this.tiles.computeIfAbsent(key, ignored -> tile);
+        }
+    }
+
+    /**
+     * Writes the tiles changed by a move, once the game item has been written as the given version, and keeps the
+     * cached tiles of the game current at that version.
+     */
+    public void saveChanged(final String gameId, final Collection<Tile> touched, final Long version) {
+        final List<Tile> changed = new ArrayList<>();
+        for (Tile tile : touched) {
+            if (tile.isDirty()) {
+                changed.add(tile);
+            }
+        }
+        if (!changed.isEmpty()) {
+            this.tileRepository.saveAll(changed);
+            changed.forEach(Tile::markClean);
+        }
+        synchronized (this.tiles) {
+            this.versions.put(gameId, version);
+        }
+    }
+
+    /**
+     * Drops the cached tiles of a game, so they are read again from the repository.
+     */
+    public void evictGame(final String gameId) {
+        synchronized (this.tiles) {
+            this.evictTiles(gameId);
+            this.versions.remove(gameId);
+        }
+    }
+
+    private void evictTiles(final String gameId) {
+        final String prefix = gameId.concat("/");
+        this.tiles.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+}
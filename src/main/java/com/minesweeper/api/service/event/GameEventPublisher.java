@@ -0,0 +1,211 @@
+package com.minesweeper.api.service.event;
+
+import com.minesweeper.api.dto.MineSweeperDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes the deltas of the changes applied on this instance to the server-sent event streams open on their game.
+ * Every stream opens with a {@code version} event, the revision of the game when it was subscribed.
+ * <p>
+ * Publishing never blocks the move: every subscriber has a bounded buffer, drained on the event threads. When a
+ * subscriber falls behind and its buffer fills up, its pending deltas are dropped and replaced by a single
+ * {@code resync} event, telling the client to load the game again before applying new deltas.
+ */
+@Component
+@Slf4j
+public class GameEventPublisher {
+
+    public static final String DELTA_EVENT = "delta";
+    public static final String RESYNC_EVENT = "resync";
+    public static final String VERSION_EVENT = "version";
+
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Executor executor;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    @Autowired
+    public GameEventPublisher(@Value("${minesweeper.events.buffer-size:64}") final int bufferSize,
+                              @Value("${minesweeper.events.timeout:PT30M}") final Duration timeout,
+                              @Value("${minesweeper.events.threads:2}") final int threads) {
+        this(bufferSize, timeout, Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-events");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    GameEventPublisher(final int bufferSize, final Duration timeout, final Executor executor) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        if (this.executor instanceof ExecutorService) {
+            ((ExecutorService) this.executor).shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a stream on the game, starting with a version event. It must be called holding the game lock, so the
+     * version is the one the next delta follows.
+     */
+    public SseEmitter subscribe(final String mineSweeperId, final long version) {
+        final SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        final Subscriber subscriber = new Subscriber(emitter, this.bufferSize);
+        subscriber.queue.offer(new GameEvent(VERSION_EVENT, new GameVersion(mineSweeperId, version)));
+        this.subscribers.computeIfAbsent(mineSweeperId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+        this.subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> this.unsubscribe(mineSweeperId, subscriber));
+        emitter.onTimeout(() -> this.unsubscribe(mineSweeperId, subscriber));
+        emitter.onError(error -> this.unsubscribe(mineSweeperId, subscriber));
+        this.schedule(subscriber);
+        return emitter;
+    }
+
+    public boolean hasSubscribers(final String mineSweeperId) {
+        return this.subscribers.containsKey(mineSweeperId);
+    }
+
+    /**
+     * Queues the delta for every subscriber of its game. It must be called in the order the moves were applied,
+     * which the game lock guarantees.
+     */
+    public void publish(final MineSweeperDelta delta) {
+        final Set<Subscriber> gameSubscribers = this.subscribers.get(delta.getMineSweeperId());
+        if (gameSubscribers == null) {
+            return;
+        }
+        this.published.increment();
+        for (Subscriber subscriber : gameSubscribers) {
+            this.offer(subscriber, delta);
+        }
+    }
+
+    public GameEventStatistics getStatistics() {
+        return GameEventStatistics.builder().subscribers(this.subscriberCount.get()).published(this.published.sum())
+                .delivered(this.delivered.sum()).dropped(this.dropped.sum()).resyncs(this.resyncs.sum()).build();
+    }
+
+    private void offer(final Subscriber subscriber, final MineSweeperDelta delta) {
+        if (!subscriber.queue.offer(new GameEvent(DELTA_EVENT, delta))) {
+            // The subscriber can not keep up: it gets a resync instead of a gap in its deltas. Deltas of a game are
+            // published under its lock, so nothing else is queueing for this subscriber meanwhile
+            this.dropped.add(subscriber.queue.size() + 1);
+            this.resyncs.increment();
+            subscriber.queue.clear();
+            subscriber.queue.offer(new GameEvent(RESYNC_EVENT, new GameVersion(delta.getMineSweeperId(), delta.getVersion())));
+        }
+        this.schedule(subscriber);
+    }
+
+    private void schedule(final Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            this.executor.execute(() -> this.drain(subscriber));
+        }
+    }
+
+    private void drain(final Subscriber subscriber) {
+        do {
+            GameEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name(event.name).data(event.data));
+                    this.delivered.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away, the emitter callbacks remove the subscriber
+                    log.info("Could not send game event: ".concat(String.valueOf(e.getMessage())));
+                    subscriber.queue.clear();
+                    subscriber.emitter.completeWithError(e);
+                }
+            }
+            subscriber.scheduled.set(false);
+            // An event queued after the last poll but before the flag was cleared would be left behind otherwise
+        } while (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(final String mineSweeperId, final Subscriber subscriber) {
+        this.subscribers.computeIfPresent(mineSweeperId, (id, set) -> {
+            if (set.remove(subscriber)) {
+                this.subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<GameEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscriber(final SseEmitter emitter, final int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private static final class GameEvent {
+
+        private final String name;
+        private final Object data;
+
+        private GameEvent(final String name, final Object data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Payload of the version and resync events: the version of the game when the stream was opened, or when deltas
+     * were dropped.
+     */
+    public static final class GameVersion {
+
+        private final String mineSweeperId;
+        private final long version;
+
+        GameVersion(final String mineSweeperId, final long version) {
+            this.mineSweeperId = mineSweeperId;
+            this.version = version;
+        }
+
+        public String getMineSweeperId() {
+            return this.mineSweeperId;
+        }
+
+        public long getVersion() {
+            return this.version;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.minesweeper.api.service.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class GameEventStatistics {
+
+    private int subscribers;
+    private long published;
+    private long delivered;
+    private long dropped;
+    private long resyncs;
+
+}
@@ -0,0 +1,155 @@
+package com.minesweeper.api.service.impl;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.ChunkedMineSweeperDelta;
+import com.minesweeper.api.dto.ChunkedMineSweeperRequest;
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.chunk.ChunkedBoard;
+import com.minesweeper.api.model.chunk.ChunkedMineSweeper;
+import com.minesweeper.api.model.chunk.Tile;
+import com.minesweeper.api.model.chunk.TileSource;
+import com.minesweeper.api.model.exception.GameConflictException;
+import com.minesweeper.api.model.exception.MinesweeperApiException;
+import com.minesweeper.api.repository.ChunkedMineSweeperRepository;
+import com.minesweeper.api.service.ChunkedMineSweeperService;
+import com.minesweeper.api.service.chunk.TileCache;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class ChunkedMineSweeperServiceImpl implements ChunkedMineSweeperService {
+
+    private static final int MAX_REGION_SIZE = 128;
+
+    @Autowired
+    ChunkedMineSweeperRepository chunkedMineSweeperRepository;
+
+    @Autowired
+    TileCache tileCache;
+
+    @Autowired
+    GameLockRegistry gameLockRegistry;
+
+    @Value("${minesweeper.concurrency.max-attempts:3}")
+    int maxAttempts;
+
+    @Value("${minesweeper.chunked.max-reveal:100000}")
+    int maxReveal;
+
+    @Override
+    public ChunkedMineSweeper createMineSweeper(ChunkedMineSweeperRequest request) {
+        ChunkedMineSweeper mineSweeper = ChunkedMineSweeper.builder().status(Status.ACTIVE)
+                .userId(request.getUserId()).rows(request.getRows()).columns(request.getColumns())
+                .density(request.getDensity()).seed(request.getSeed()).build();
+        mineSweeper.init();
+        return this.chunkedMineSweeperRepository.save(mineSweeper);
+    }
+
+    @Override
+    public ChunkedMineSweeper getMineSweeperById(String mineSweeperId) {
+        return this.chunkedMineSweeperRepository.findById(mineSweeperId)
+                .orElseThrow(() -> new MinesweeperApiException("Minesweeper does not exist"));
+    }
+
+    @Override
+    public List<Cell> getRegion(String mineSweeperId, int x, int y, int rows, int columns) {
+        if (rows <= 0 || rows > MAX_REGION_SIZE || columns <= 0 || columns > MAX_REGION_SIZE) {
+            throw new MinesweeperApiException(
+                    "Invalid request. Region rows and columns should be between 1 and " + MAX_REGION_SIZE);
+        }
+
+        return this.gameLockRegistry.withLock(mineSweeperId, () -> {
+            ChunkedMineSweeper mineSweeper = this.getMineSweeperById(mineSweeperId);
+            ChunkedBoard board = mineSweeper.board(this.tiles(mineSweeper, new HashMap<>()));
+            List<Cell> cells = new ArrayList<>(rows * columns);
+            for (int i = x; i < x + rows; i++) {
+                for (int j = y; j < y + columns; j++) {
+                    if (board.contains(i, j)) {
+                        cells.add(board.toVisibleCell(i, j));
+                    }
+                }
+            }
+            return cells;
+        });
+    }
+
+    /**
+     * Applies the move holding the game lock, like the moves of regular games. The game item is written first,
+     * conditioned on its version, and the tiles the move changed afterwards; when the game write loses against a
+     * concurrent one the move is applied again over fresh copies of the tiles.
+     */
+    @Override
+    public ChunkedMineSweeperDelta cellAction(CellRequest cellRequest, CellAction action) {
+        final String mineSweeperId = cellRequest.getMineSweeperId();
+        return this.gameLockRegistry.withLock(mineSweeperId, () -> {
+            for (int attempt = 1; attempt <= this.maxAttempts; attempt++) {
+                try {
+                    return this.applyCellAction(this.getMineSweeperById(mineSweeperId), cellRequest, action);
+                } catch (ConditionalCheckFailedException e) {
+                    log.info("Concurrent update on chunked minesweeper id: ".concat(mineSweeperId)
+                            .concat(", attempt ").concat(String.valueOf(attempt)));
+                }
+            }
+            throw new GameConflictException("The game has been modified concurrently, please try again");
+        });
+    }
+
+    private ChunkedMineSweeperDelta applyCellAction(ChunkedMineSweeper mineSweeper, CellRequest cellRequest,
+                                                    CellAction action) {
+        if (!mineSweeper.getStatus().equals(Status.ACTIVE)) {
+            throw new MinesweeperApiException("You can't play in a non active game");
+        }
+
+        Map<Long, Tile> touched = new HashMap<>();
+        ChunkedBoard board = mineSweeper.board(this.tiles(mineSweeper, touched));
+        List<Cell> changes = new ArrayList<>();
+        ChunkedMineSweeper saved;
+        try {
+            switch (action) {
+                case FLAG:
+                    mineSweeper.flagCell(board, cellRequest.getX(), cellRequest.getY(), changes);
+                    break;
+                case CLICK:
+                    mineSweeper.recognizeCell(board, cellRequest.getX(), cellRequest.getY(), this.maxReveal, changes);
+                    break;
+                default:
+                    throw new MinesweeperApiException("Invalid request. Action not supported on chunked games");
+            }
+
+            saved = this.chunkedMineSweeperRepository.save(mineSweeper);
+            this.tileCache.saveChanged(saved.getId(), touched.values(), saved.getVersion());
+        } catch (RuntimeException e) {
+            if (touched.values().stream().anyMatch(Tile::isDirty)) {
+                // The cached tiles were changed in place by a move that was not stored, whatever the failure
+                this.tileCache.evictGame(mineSweeper.getId());
+            }
+            throw e;
+        }
+
+        return ChunkedMineSweeperDelta.builder().mineSweeperId(saved.getId()).version(saved.getMoves())
+                .status(saved.getStatus()).recognizedCells(saved.getRecognizedCells())
+                .flagsPlaced(saved.getFlagsPlaced()).cells(changes).build();
+    }
+
+    /**
+     * Tiles of the game served by the cache, remembering in {@code touched} every tile handed out.
+     */
+    private TileSource tiles(ChunkedMineSweeper mineSweeper, Map<Long, Tile> touched) {
+        final String mineSweeperId = mineSweeper.getId();
+        final Long version = mineSweeper.getVersion();
+        return (tileX, tileY) -> touched.computeIfAbsent(ChunkedBoard.pack(tileX, tileY),
+                key -> this.tileCache.get(mineSweeperId, version, tileX, tileY));
+    }
+}
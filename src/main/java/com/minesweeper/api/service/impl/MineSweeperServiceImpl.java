@@ -1,34 +1,99 @@
 package com.minesweeper.api.service.impl;
 
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.config.GameMetrics;
+import com.minesweeper.api.dto.BatchCellRequest;
+import com.minesweeper.api.dto.BatchMoveResponse;
 import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.MineSweeperDelta;
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
 import com.minesweeper.api.dto.MineSweeperRequest;
-import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.dto.MoveOutcome;
 import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.CellChanges;
+import com.minesweeper.api.model.GameMove;
 import com.minesweeper.api.model.MineSweeper;
 import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.GameConflictException;
 import com.minesweeper.api.model.exception.MinesweeperApiException;
+import com.minesweeper.api.repository.AsyncMineSweeperRepository;
 import com.minesweeper.api.repository.MineSweeperRepository;
 import com.minesweeper.api.service.MineSweeperService;
+import com.minesweeper.api.service.cache.GameSessionCache;
+import com.minesweeper.api.service.event.GameEventPublisher;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import com.minesweeper.api.service.movelog.MoveLog;
+import com.minesweeper.api.service.replay.RecordedGame;
+import com.minesweeper.api.service.replay.ReplayEngine;
+import com.minesweeper.api.service.replay.ReplayResult;
+import com.minesweeper.api.service.pool.BoardPool;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class MineSweeperServiceImpl implements MineSweeperService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     MineSweeperRepository mineSweeperRepository;
 
+    @Autowired
+    AsyncMineSweeperRepository asyncMineSweeperRepository;
+
+    @Autowired
+    GameSessionCache gameSessionCache;
+
+    @Autowired
+    GameLockRegistry gameLockRegistry;
+
+    @Autowired
+    BoardPool boardPool;
+
+    @Autowired
+    GameEventPublisher gameEventPublisher;
+
+    @Autowired
+    MoveLog moveLog;
+
+    @Value("${minesweeper.concurrency.max-attempts:3}")
+    int maxAttempts;
+
     @Override
     public MineSweeper generateMineSweeper(MineSweeperRequest request) {
+        if (!request.isLazy() && request.getSeed() == null) {
+            Optional<MineSweeper> pooled = this.boardPool.take(request.getRows(), request.getColumns(), request.getBombs());
+            if (pooled.isPresent()) {
+                pooled.get().setUserId(request.getUserId());
+                return pooled.get();
+            }
+        }
+
         MineSweeper mineSweeper = MineSweeper.builder().status(Status.ACTIVE).userId(request.getUserId())
-                .rows(request.getRows()).columns(request.getColumns()).bombs(request.getBombs()).build();
-        mineSweeper.initCells();
+                .rows(request.getRows()).columns(request.getColumns()).bombs(request.getBombs())
+                .seed(request.getSeed()).build();
+        if (request.isLazy()) {
+            mineSweeper.initLazyCells();
+        } else {
+            final long start = System.nanoTime();
+            mineSweeper.initCells();
+            GameMetrics.recordInitCells(mineSweeper, System.nanoTime() - start);
+        }
         return mineSweeper;
     }
 
@@ -36,16 +101,30 @@ public class MineSweeperServiceImpl implements MineSweeperService {
     public MineSweeper createMineSweeper(MineSweeperRequest request) {
         MineSweeper mineSweeper = this.generateMineSweeper(request);
 
-        return this.saveMineSweeper(mineSweeper);
+        return this.persist(mineSweeper);
     }
 
+    /**
+     * Saves a whole game sent by a client. The seed and the pending bomb placement are never sent to the players, so
+     * they are kept from the stored game: without them a lazy game could not place its bombs, and its moves could not
+     * be replayed.
+     */
     @Override
     public MineSweeper saveMineSweeper(MineSweeper mineSweeper) {
-        if (!Objects.isNull(mineSweeper.getId())) {
-            log.info("Saving minesweeper with id: ".concat(mineSweeper.getId()));
+        if (Objects.isNull(mineSweeper.getId())) {
+            return this.persist(mineSweeper);
         }
 
-        return this.mineSweeperRepository.save(mineSweeper);
+        return this.gameLockRegistry.withLock(mineSweeper.getId(), () -> {
+            this.gameSessionCache.findById(mineSweeper.getId()).ifPresent(stored -> {
+                mineSweeper.setSeed(stored.getSeed());
+                mineSweeper.setLazy(stored.isLazy());
+                mineSweeper.setPendingBombs(stored.isPendingBombs());
+                // The cached game may not be written yet, so the version alone would not tell the game changed
+                mineSweeper.setRevision(stored.getRevision() + 1);
+            });
+            return this.persist(mineSweeper);
+        });
     }
 
     @Override
@@ -53,38 +132,313 @@ public class MineSweeperServiceImpl implements MineSweeperService {
         return this.mineSweeperRepository.getMineSweepersByUserId(userId);
     }
 
+    @Override
+    public MineSweeperPage getMinesweepersPageByUserId(String userId, String cursor, int limit) {
+        this.validatePageLimit(limit);
+        return this.mineSweeperRepository.findPageByUserId(userId, cursor, limit);
+    }
+
+    @Override
+    public MineSweeperSummaryPage getMinesweeperSummariesByUserId(String userId, String cursor, int limit) {
+        this.validatePageLimit(limit);
+        return this.mineSweeperRepository.findSummaryPageByUserId(userId, cursor, limit);
+    }
+
+    /**
+     * Current state of the game. With the session cache enabled it is a copy of the cached game, taken holding the
+     * game lock, so a response never shows a move half applied.
+     */
     @Override
     public MineSweeper getMineSweeperById(String mineSweeperId) {
-        Optional<MineSweeper> response = this.mineSweeperRepository.findById(mineSweeperId);
-        return response.orElseThrow(() -> new MinesweeperApiException("Minesweeper does not exist"));
+        return this.readMineSweeper(mineSweeperId, this::snapshot);
+    }
+
+    /**
+     * ETag of the current game state. The stored item is only current when moves are written through, otherwise
+     * (session cache or move log enabled) the game is loaded as for any move, which is served from memory for
+     * cached games.
+     */
+    @Override
+    public String getMineSweeperETag(String mineSweeperId) {
+        if (this.gameSessionCache.isEnabled() || this.moveLog.isEnabled()) {
+            return this.readMineSweeper(mineSweeperId, MineSweeper::etag);
+        }
+        return this.mineSweeperRepository.findVersionById(mineSweeperId).map(MineSweeper::etag)
+                .orElseThrow(() -> new MinesweeperApiException("Minesweeper does not exist"));
+    }
+
+    /**
+     * Same as {@link #getMineSweeperById(String)}, without blocking the calling thread while the game is read from
+     * DynamoDB. With the session cache or the move log enabled the game is read holding its lock as usual, and is
+     * served from memory once cached.
+     */
+    @Override
+    public CompletableFuture<MineSweeper> getMineSweeperByIdAsync(String mineSweeperId) {
+        if (this.gameSessionCache.isEnabled() || this.moveLog.isEnabled()) {
+            return CompletableFuture.completedFuture(this.getMineSweeperById(mineSweeperId));
+        }
+        final long start = System.nanoTime();
+        return this.asyncMineSweeperRepository.findById(mineSweeperId)
+                .whenComplete((response, e) -> GameMetrics.recordRepository("findById",
+                        e == null ? response.orElse(null) : null,
+                        e != null ? GameMetrics.ERROR : response.isPresent() ? GameMetrics.SUCCESS : GameMetrics.NOT_FOUND,
+                        System.nanoTime() - start))
+                .thenApply(response -> response.orElseThrow(() -> new MinesweeperApiException("Minesweeper does not exist")));
+    }
+
+    @Override
+    public CompletableFuture<String> getMineSweeperETagAsync(String mineSweeperId) {
+        if (this.gameSessionCache.isEnabled() || this.moveLog.isEnabled()) {
+            return CompletableFuture.completedFuture(this.getMineSweeperETag(mineSweeperId));
+        }
+        return this.asyncMineSweeperRepository.findVersionById(mineSweeperId).thenApply(response -> response
+                .map(MineSweeper::etag).orElseThrow(() -> new MinesweeperApiException("Minesweeper does not exist")));
     }
 
     @Override
     public MineSweeper pauseResumeMineSweeper(String mineSweeperId) {
-        MineSweeper mineSweeper = this.getMineSweeperById(mineSweeperId);
-        mineSweeper.pause();
-        return this.saveMineSweeper(mineSweeper);
+        return this.withRetries(mineSweeperId, mineSweeper -> {
+            mineSweeper.pause();
+            this.moveLog.fence(mineSweeper);
+            MineSweeper saved = this.persist(mineSweeper);
+            this.moveLog.unfence(saved);
+            this.publish(saved, new CellChanges());
+            return saved;
+        });
     }
 
     @Override
     public MineSweeper cellAction(CellRequest cellRequest, CellAction action) {
+        return this.withRetries(cellRequest.getMineSweeperId(), mineSweeper -> {
+            CellChanges changes = new CellChanges();
+            List<GameMove> applied = new ArrayList<>(1);
+            this.applyCellAction(mineSweeper, cellRequest, action, changes, applied);
+            MineSweeper saved = this.saveMoves(mineSweeper, applied);
+            this.publish(saved, changes);
+            return saved;
+        });
+    }
+
+    @Override
+    public MineSweeperDelta cellActionDelta(CellRequest cellRequest, CellAction action) {
+        return this.withRetries(cellRequest.getMineSweeperId(), mineSweeper -> {
+            CellChanges changes = new CellChanges();
+            List<GameMove> applied = new ArrayList<>(1);
+            this.applyCellAction(mineSweeper, cellRequest, action, changes, applied);
+            MineSweeperDelta delta = this.toDelta(this.saveMoves(mineSweeper, applied), changes);
+            this.gameEventPublisher.publish(delta);
+            return delta;
+        });
+    }
+
+    /**
+     * Applies the moves in order over a single load and save of the game. A move that can not be applied (a cell
+     * out of the board) is rejected without stopping the batch, and the moves after the game ends are skipped.
+     */
+    @Override
+    public BatchMoveResponse cellActions(BatchCellRequest batchRequest) {
+        List<CellRequest> moves = batchRequest.getMoves();
+        if (moves == null || moves.isEmpty() || moves.size() > MAX_BATCH_SIZE) {
+            throw new MinesweeperApiException("Invalid request. A batch should have between 1 and " + MAX_BATCH_SIZE
+                    + " moves");
+        }
+        if (moves.stream().anyMatch(move -> move.getAction() == null)) {
+            throw new MinesweeperApiException("Invalid request. Every move of a batch should have an action");
+        }
+
+        return this.withRetries(batchRequest.getMineSweeperId(), mineSweeper -> {
+            if (!mineSweeper.getStatus().equals(Status.ACTIVE)) {
+                throw new MinesweeperApiException("You can't play in a non active game");
+            }
+
+            CellChanges changes = new CellChanges();
+            List<GameMove> applied = new ArrayList<>(moves.size());
+            List<MoveOutcome> outcomes = new ArrayList<>(moves.size());
+            for (CellRequest move : moves) {
+                MoveOutcome.MoveOutcomeBuilder outcome = MoveOutcome.builder().x(move.getX()).y(move.getY())
+                        .action(move.getAction());
+                if (!mineSweeper.getStatus().equals(Status.ACTIVE)) {
+                    outcomes.add(outcome.result(MoveOutcome.Result.SKIPPED).message("The game has ended").build());
+                    continue;
+                }
+                try {
+                    this.applyCellAction(mineSweeper, move, move.getAction(), changes, applied);
+                    outcomes.add(outcome.result(MoveOutcome.Result.APPLIED).build());
+                } catch (MinesweeperApiException e) {
+                    outcomes.add(outcome.result(MoveOutcome.Result.REJECTED).message(e.getMessage()).build());
+                }
+            }
+
+            MineSweeperDelta delta = this.toDelta(this.saveMoves(mineSweeper, applied), changes);
+            // A cell changed by several moves is sent once, as it is after the last one
+            delta.setCells(delta.getCells().stream().distinct().collect(Collectors.toList()));
+            this.gameEventPublisher.publish(delta);
+            return BatchMoveResponse.builder().outcomes(outcomes).delta(delta).build();
+        });
+    }
+
+    /**
+     * Opens a server-sent event stream with the delta of every change applied to the game from now on. Clients load
+     * the game once and apply the deltas with a greater version than its revision. The stream opens with a
+     * {@code version} event carrying the current revision, a client whose game is older loads it again; a
+     * {@code resync} event means deltas were dropped and the game has to be loaded again as well.
+     */
+    @Override
+    public SseEmitter streamMineSweeper(String mineSweeperId) {
+        // Subscribed holding the game lock, so no change is published between the revision and the subscription
+        return this.readMineSweeper(mineSweeperId, mineSweeper ->
+                this.gameEventPublisher.subscribe(mineSweeperId, mineSweeper.getRevision()));
+    }
+
+    /**
+     * Plays the game again from its seed and logged moves, and checks it reaches the stored state.
+     */
+    @Override
+    public ReplayResult verifyMineSweeper(String mineSweeperId) {
+        if (!this.moveLog.isEnabled()) {
+            throw new MinesweeperApiException("Games can only be verified when the move log is enabled");
+        }
+        RecordedGame recorded = this.readMineSweeper(mineSweeperId, mineSweeper -> RecordedGame.builder()
+                .game(this.snapshot(mineSweeper)).moves(this.moveLog.moves(mineSweeperId)).build());
+        return ReplayEngine.verify(recorded);
+    }
+
+    /**
+     * Runs a read-modify-write over the game, holding its lock so moves on the same game are applied one at a time
+     * in this instance. When the write loses against a concurrent one from another instance, the move is applied
+     * again over a fresh copy of the game, up to {@code maxAttempts} times.
+     */
+    private <T> T withRetries(String mineSweeperId, Function<MineSweeper, T> move) {
+        return this.gameLockRegistry.withLock(mineSweeperId, () -> this.applyWithRetries(mineSweeperId, move));
+    }
+
+    private <T> T applyWithRetries(String mineSweeperId, Function<MineSweeper, T> move) {
+        for (int attempt = 1; attempt <= this.maxAttempts; attempt++) {
+            try {
+                return move.apply(this.loadMineSweeper(mineSweeperId));
+            } catch (ConditionalCheckFailedException e) {
+                log.info("Concurrent update on minesweeper id: ".concat(mineSweeperId).concat(", attempt ")
+                        .concat(String.valueOf(attempt)));
+                this.gameSessionCache.evict(mineSweeperId);
+            } catch (GameConflictException e) {
+                // Only part of the moves were logged, the cached game also holds the ones that were not
+                this.gameSessionCache.evict(mineSweeperId);
+                throw e;
+            }
+        }
+        throw new GameConflictException("The game has been modified concurrently, please try again");
+    }
+
+    /**
+     * Reads the game holding its lock, the cached game is shared with the moves applied to it.
+     */
+    private <T> T readMineSweeper(String mineSweeperId, Function<MineSweeper, T> read) {
+        return this.gameLockRegistry.withLock(mineSweeperId, () -> read.apply(this.loadMineSweeper(mineSweeperId)));
+    }
+
+    /**
+     * Loads the game to apply moves to, the caller holds the game lock.
+     */
+    private MineSweeper loadMineSweeper(String mineSweeperId) {
+        Optional<MineSweeper> response = this.gameSessionCache.findById(mineSweeperId);
+        return this.moveLog.catchUp(
+                response.orElseThrow(() -> new MinesweeperApiException("Minesweeper does not exist")));
+    }
+
+    private MineSweeper snapshot(MineSweeper mineSweeper) {
+        // Only cached games outlive the request, the others were loaded for it
+        return this.gameSessionCache.isEnabled() ? mineSweeper.copy() : mineSweeper;
+    }
 
-        MineSweeper mineSweeper = this.getMineSweeperById(cellRequest.getMineSweeperId());
+    /**
+     * Persists the moves applied to the game: the whole game when the move log is disabled, otherwise the log items
+     * and, when one is due, a snapshot of the game.
+     */
+    private MineSweeper saveMoves(MineSweeper mineSweeper, List<GameMove> applied) {
+        if (!this.moveLog.isEnabled()) {
+            return this.persist(mineSweeper);
+        }
+        if (this.moveLog.append(mineSweeper, applied)) {
+            try {
+                return this.persist(mineSweeper);
+            } catch (ConditionalCheckFailedException e) {
+                // The moves are already logged, another instance wrote a newer snapshot meanwhile
+                log.info("Skipping snapshot of minesweeper id: ".concat(mineSweeper.getId()));
+                this.gameSessionCache.evict(mineSweeper.getId());
+            }
+        }
+        return mineSweeper;
+    }
+
+    private MineSweeper persist(MineSweeper mineSweeper) {
+        if (!Objects.isNull(mineSweeper.getId())) {
+            log.info("Saving minesweeper with id: ".concat(mineSweeper.getId()));
+        }
+
+        return this.gameSessionCache.save(mineSweeper);
+    }
+
+    private void publish(MineSweeper saved, CellChanges changes) {
+        // The delta is only built when someone is listening
+        if (this.gameEventPublisher.hasSubscribers(saved.getId())) {
+            this.gameEventPublisher.publish(this.toDelta(saved, changes));
+        }
+    }
+
+    private MineSweeperDelta toDelta(MineSweeper saved, CellChanges changes) {
+        return MineSweeperDelta.builder().mineSweeperId(saved.getId()).version(saved.getRevision())
+                .status(saved.getStatus()).bombs(saved.getBombs()).flagsPlaced(saved.getFlagsPlaced())
+                .hiddenSafeCells(saved.getHiddenSafeCells()).cells(saved.changedCells(changes)).build();
+    }
+
+    private void validatePageLimit(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new MinesweeperApiException("Invalid request. Page limit should be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void applyCellAction(MineSweeper mineSweeper, CellRequest cellRequest, CellAction action,
+                                 CellChanges changes, List<GameMove> applied) {
         if(!mineSweeper.getStatus().equals(Status.ACTIVE)){
             throw new MinesweeperApiException("You can't play in a non active game");
         }
 
-        Cell cell = mineSweeper.getCell(cellRequest.getX(), cellRequest.getY());
-
-        switch (action) {
-            case FLAG:
-                cell.flag();
-                break;
-            case CLICK:
-                mineSweeper.recognizeCell(cell);
-                break;
+        final long movesBefore = mineSweeper.getMoves();
+        final int changesBefore = changes.size();
+        final long start = System.nanoTime();
+        long revealStart = start;
+        try {
+            switch (action) {
+                case FLAG:
+                    mineSweeper.flagCell(cellRequest.getX(), cellRequest.getY(), changes);
+                    break;
+                case CLICK:
+                    // The bombs of a lazy board are placed on its first click, timed as its generation
+                    if (mineSweeper.placePendingBombs(cellRequest.getX(), cellRequest.getY())) {
+                        revealStart = System.nanoTime();
+                        GameMetrics.recordInitCells(mineSweeper, revealStart - start);
+                    }
+                    mineSweeper.recognizeCell(cellRequest.getX(), cellRequest.getY(), changes);
+                    break;
+                case CHORD:
+                    mineSweeper.chordCell(cellRequest.getX(), cellRequest.getY(), changes);
+                    break;
+            }
+        } catch (MinesweeperApiException e) {
+            GameMetrics.recordMove(mineSweeper, action, GameMetrics.REJECTED, System.nanoTime() - start);
+            throw e;
         }
+        final long end = System.nanoTime();
+        if (!CellAction.FLAG.equals(action)) {
+            GameMetrics.recordReveal(mineSweeper, action, changes.size() - changesBefore, end - revealStart);
+        }
+        GameMetrics.recordMove(mineSweeper, action,
+                mineSweeper.getMoves() > movesBefore ? GameMetrics.SUCCESS : GameMetrics.UNCHANGED, end - start);
 
-        return this.saveMineSweeper(mineSweeper);
+        // Moves that changed nothing (such as a chord with missing flags) do not count, nor are they logged
+        if (mineSweeper.getMoves() > movesBefore) {
+            applied.add(GameMove.builder().gameId(mineSweeper.getId()).seq(mineSweeper.getMoves())
+                    .x(cellRequest.getX()).y(cellRequest.getY()).action(action).build());
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.minesweeper.api.service.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the mutations of each game inside this instance. Game ids are hashed over a fixed set of lock stripes,
+ * so memory stays bounded and different games run in parallel unless they happen to share a stripe.
+ */
+@Component
+public class GameLockRegistry {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    public GameLockRegistry(@Value("${minesweeper.locks.stripes:256}") final int stripes,
+                            @Value("${minesweeper.locks.fair:false}") final boolean fair) {
+        // Rounded up to a power of two so a stripe is picked with a mask
+        final int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock(fair);
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T withLock(final String mineSweeperId, final Supplier<T> action) {
+        final ReentrantLock lock = this.stripeFor(mineSweeperId);
+        this.acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LockStatistics getStatistics() {
+        return LockStatistics.builder().acquisitions(this.acquisitions.sum())
+                .contendedAcquisitions(this.contendedAcquisitions.sum()).totalWaitNanos(this.totalWaitNanos.sum())
+                .maxWaitNanos(this.maxWaitNanos.get()).build();
+    }
+
+    private ReentrantLock stripeFor(final String mineSweeperId) {
+        final int hash = mineSweeperId.hashCode();
+        return this.stripes[(hash ^ (hash >>> 16)) & this.mask];
+    }
+
+    private void acquire(final ReentrantLock lock) {
+        this.acquisitions.increment();
+        // tryLock barges, so fair stripes only take the fast path when nobody is queued
+        if (!(lock.isFair() && lock.hasQueuedThreads()) && lock.tryLock()) {
+            return;
+        }
+
+        this.contendedAcquisitions.increment();
+        final long start = System.nanoTime();
+        lock.lock();
+        final long waited = System.nanoTime() - start;
+        this.totalWaitNanos.add(waited);
+        this.maxWaitNanos.accumulate(waited);
+    }
+}
@@ -0,0 +1,15 @@
+package com.minesweeper.api.service.lock;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LockStatistics {
+
+    private long acquisitions;
+    private long contendedAcquisitions;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+}
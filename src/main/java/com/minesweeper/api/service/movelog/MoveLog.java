@@ -0,0 +1,132 @@
+package com.minesweeper.api.service.movelog;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.GameConflictException;
+import com.minesweeper.api.model.exception.MinesweeperApiException;
+import com.minesweeper.api.repository.GameMoveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of the moves of every game. When it is enabled a move writes a small log item instead of the whole
+ * game, and the game item is only written as a snapshot every {@code snapshotInterval} moves (and when the game
+ * ends). A game is loaded as its last snapshot plus the moves logged after it, replayed in order.
+ * <p>
+ * A paused game is fenced: the sequence number of its next move is taken until it is resumed, so an instance that
+ * still sees the game active fails to log a move against it and applies the move again over the paused game.
+ * <p>
+ * Between snapshots the game item lags behind: listings show the counters and last update of the last snapshot.
+ */
+@Component
+@Slf4j
+public class MoveLog {
+
+    private final GameMoveRepository gameMoveRepository;
+    private final boolean enabled;
+    private final int snapshotInterval;
+
+    public MoveLog(final GameMoveRepository gameMoveRepository,
+                   @Value("${minesweeper.move-log.enabled:false}") final boolean enabled,
+                   @Value("${minesweeper.move-log.snapshot-interval:50}") final int snapshotInterval) {
+        this.gameMoveRepository = gameMoveRepository;
+        this.enabled = enabled;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Every move logged for the game, in order.
+     */
+    public List<GameMove> moves(final String mineSweeperId) {
+        return this.gameMoveRepository.findAfter(mineSweeperId, 0L).stream().filter(move -> !move.isFence())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replays over the snapshot the moves logged after it, so it reflects every move applied to the game. The
+     * snapshot is changed in place, so the caller holds the game lock: a move applied meanwhile would be replayed
+     * again. Moves the snapshot already counts, and fences, are skipped.
+     * <p>
+     * Fences keep moves from being logged against a paused game, so every logged move applies. One that does not
+     * means the log and the snapshot disagree, and the game is not served rather than served without that move.
+     */
+    public MineSweeper catchUp(final MineSweeper snapshot) {
+        if (!this.enabled) {
+            return snapshot;
+        }
+        for (GameMove move : this.gameMoveRepository.findAfter(snapshot.getId(), snapshot.getMoves())) {
+            if (move.isFence() || move.getSeq() <= snapshot.getMoves()) {
+                continue;
+            }
+            try {
+                snapshot.replay(move);
+            } catch (MinesweeperApiException e) {
+                log.error("Could not replay move ".concat(String.valueOf(move.getSeq())).concat(" of minesweeper id: ")
+                        .concat(snapshot.getId()).concat(": ").concat(e.getMessage()));
+                throw new GameConflictException("The game has been modified concurrently, please load it again");
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Fences the game once paused, before its snapshot is written, and removes the fence once resumed, after its
+     * snapshot is written.
+     *
+     * @throws ConditionalCheckFailedException when another writer logged a move first, the game can be paused again
+     * over a fresh copy
+     */
+    public void fence(final MineSweeper mineSweeper) {
+        if (this.enabled && Status.PAUSED.equals(mineSweeper.getStatus())) {
+            this.gameMoveRepository.fence(GameMove.builder().gameId(mineSweeper.getId())
+                    .seq(mineSweeper.getMoves() + 1).fence(true).build());
+        }
+    }
+
+    public void unfence(final MineSweeper mineSweeper) {
+        if (this.enabled && !Status.PAUSED.equals(mineSweeper.getStatus())) {
+            // A resume that could not remove it leaves the game fenced, pausing and resuming it again removes it
+            this.gameMoveRepository.removeFence(mineSweeper.getId(), mineSweeper.getMoves() + 1);
+        }
+    }
+
+    /**
+     * Appends the moves just applied to the game, in order. Each one is conditioned on its sequence number being
+     * free, so two writers can never log different moves as the same one.
+     *
+     * @return whether the game should be written as a snapshot
+     * @throws ConditionalCheckFailedException when another writer logged a move first and nothing was appended, the
+     * moves can be applied again over a fresh copy of the game
+     * @throws GameConflictException when another writer logged a move after some of these were appended
+     */
+    public boolean append(final MineSweeper mineSweeper, final List<GameMove> moves) {
+        if (moves.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            try {
+                this.gameMoveRepository.append(moves.get(i));
+            } catch (ConditionalCheckFailedException e) {
+                if (i == 0) {
+                    throw e;
+                }
+                throw new GameConflictException("The game has been modified concurrently, only the first "
+                        + i + " moves were applied");
+            }
+        }
+
+        final long before = mineSweeper.getMoves() - moves.size();
+        return Status.GAME_OVER.equals(mineSweeper.getStatus()) || Status.WIN.equals(mineSweeper.getStatus())
+                || mineSweeper.getMoves() / this.snapshotInterval > before / this.snapshotInterval;
+    }
+}
@@ -0,0 +1,146 @@
+package com.minesweeper.api.service.pool;
+
+import com.minesweeper.api.config.GameMetrics;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a bounded pool of ready-made games for each difficulty preset, so creating one of them does not generate
+ * its board inline. Every board taken is replaced in the background, on a dedicated thread.
+ */
+@Component
+@Slf4j
+public class BoardPool {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final Map<String, BlockingQueue<MineSweeper>> pools = new ConcurrentHashMap<>();
+    private final ExecutorService refillExecutor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refills = new LongAdder();
+    private final LongAdder totalRefillLagNanos = new LongAdder();
+    private final LongAccumulator maxRefillLagNanos = new LongAccumulator(Math::max, 0L);
+
+    public BoardPool(@Value("${minesweeper.board-pool.enabled:true}") final boolean enabled,
+                     @Value("${minesweeper.board-pool.capacity:32}") final int capacity,
+                     @Value("${minesweeper.board-pool.presets:9x9x10,16x16x40,16x30x99}") final List<String> presets) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "board-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        if (enabled) {
+            presets.forEach(preset -> this.pools.put(preset.trim(), new ArrayBlockingQueue<>(capacity)));
+        }
+    }
+
+    @PostConstruct
+    public void fill() {
+        this.pools.forEach((preset, pool) -> this.refillExecutor.execute(() -> {
+            while (pool.remainingCapacity() > 0) {
+                pool.offer(generate(preset));
+            }
+            log.info("Board pool ready for preset ".concat(preset));
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.refillExecutor.shutdownNow();
+    }
+
+    /**
+     * Takes a ready-made game (status ACTIVE, board generated) when the parameters match a preset and the pool is not
+     * drained. A replacement is generated asynchronously.
+     */
+    public Optional<MineSweeper> take(final int rows, final int columns, final int bombs) {
+        if (!this.enabled) {
+            return Optional.empty();
+        }
+
+        final String preset = key(rows, columns, bombs);
+        final BlockingQueue<MineSweeper> pool = this.pools.get(preset);
+        if (pool == null) {
+            return Optional.empty();
+        }
+
+        final MineSweeper mineSweeper = pool.poll();
+        if (mineSweeper == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        this.refill(preset, pool);
+        return Optional.ofNullable(mineSweeper);
+    }
+
+    public Set<String> getPresets() {
+        return this.pools.keySet();
+    }
+
+    /**
+     * Ready-made games of the preset, 0 for parameters that are not pooled.
+     */
+    public int available(final String preset) {
+        final BlockingQueue<MineSweeper> pool = this.pools.get(preset);
+        return pool != null ? pool.size() : 0;
+    }
+
+    public BoardPoolStatistics getStatistics() {
+        final Map<String, Integer> available = new TreeMap<>();
+        this.pools.forEach((preset, pool) -> available.put(preset, pool.size()));
+        return BoardPoolStatistics.builder().hits(this.hits.sum()).misses(this.misses.sum())
+                .refills(this.refills.sum()).totalRefillLagNanos(this.totalRefillLagNanos.sum())
+                .maxRefillLagNanos(this.maxRefillLagNanos.get()).available(available).build();
+    }
+
+    private void refill(final String preset, final BlockingQueue<MineSweeper> pool) {
+        final long requested = System.nanoTime();
+        this.refillExecutor.execute(() -> {
+            if (pool.remainingCapacity() > 0 && pool.offer(generate(preset))) {
+                final long lag = System.nanoTime() - requested;
+                this.refills.increment();
+                this.totalRefillLagNanos.add(lag);
+                this.maxRefillLagNanos.accumulate(lag);
+            }
+        });
+    }
+
+    private static MineSweeper generate(final String preset) {
+        final String[] parameters = preset.split("x");
+        final MineSweeper mineSweeper = MineSweeper.builder().status(Status.ACTIVE)
+                .rows(Integer.parseInt(parameters[0])).columns(Integer.parseInt(parameters[1]))
+                .bombs(Integer.parseInt(parameters[2])).build();
+        final long start = System.nanoTime();
+        mineSweeper.initCells();
+        GameMetrics.recordInitCells(mineSweeper, System.nanoTime() - start);
+        return mineSweeper;
+    }
+
+    private static String key(final int rows, final int columns, final int bombs) {
+        return rows + "x" + columns + "x" + bombs;
+    }
+}
@@ -0,0 +1,20 @@
+package com.minesweeper.api.service.pool;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class BoardPoolStatistics {
+
+    private long hits;
+    private long misses;
+    private long refills;
+    private long totalRefillLagNanos;
+    private long maxRefillLagNanos;
+    // Boards ready per preset, keyed as rows x columns x bombs
+    private Map<String, Integer> available;
+
+}
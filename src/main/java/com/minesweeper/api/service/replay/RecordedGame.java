@@ -0,0 +1,19 @@
+package com.minesweeper.api.service.replay;
+
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class RecordedGame {
+
+    // The game as it was stored, with its seed
+    private MineSweeper game;
+    // Every move of the game, ordered by seq
+    private List<GameMove> moves;
+
+}
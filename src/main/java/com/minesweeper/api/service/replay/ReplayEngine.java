@@ -0,0 +1,138 @@
+package com.minesweeper.api.service.replay;
+
+import com.minesweeper.api.model.Board;
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.MinesweeperApiException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Verifies recorded games by playing them again from scratch: the board is generated from the game seed and the
+ * logged moves are applied in order, then the final status and recognized cells are compared with the stored game.
+ * A game whose stored state can not be reached by its own moves was tampered with, or was played by a different
+ * board engine.
+ * <p>
+ * Games are independent, so batches of them are verified in parallel on a fork-join pool. The engine does not need
+ * the application context, so it can be run offline over exported games as well.
+ */
+public class ReplayEngine {
+
+    // Games verified sequentially by a single task, a game replays in microseconds so tasks should not be smaller
+    private static final int GAMES_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism threads to verify games with, 0 for one per core
+     */
+    public ReplayEngine(final int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public void shutdown() {
+        this.pool.shutdownNow();
+    }
+
+    /**
+     * @return the result of every game, in the same order
+     */
+    public List<ReplayResult> verifyAll(final List<RecordedGame> games) {
+        final ReplayResult[] results = new ReplayResult[games.size()];
+        this.pool.invoke(new VerifyTask(games, results, 0, games.size()));
+        return Arrays.asList(results);
+    }
+
+    public static ReplayResult verify(final RecordedGame recorded) {
+        final MineSweeper expected = recorded.getGame();
+        final ReplayResult.ReplayResultBuilder result = ReplayResult.builder().mineSweeperId(expected.getId())
+                .expectedStatus(expected.getStatus());
+        if (expected.getSeed() == null) {
+            return result.message("The game has no seed").build();
+        }
+
+        final MineSweeper replayed = MineSweeper.builder().id(expected.getId()).status(Status.ACTIVE)
+                .rows(expected.getRows()).columns(expected.getColumns()).bombs(expected.getBombs())
+                .seed(expected.getSeed()).build();
+        if (expected.isLazy()) {
+            replayed.initLazyCells();
+        } else {
+            replayed.initCells();
+        }
+
+        for (GameMove move : recorded.getMoves()) {
+            if (move.getSeq() != replayed.getMoves() + 1) {
+                return result.replayedStatus(replayed.getStatus()).movesReplayed(replayed.getMoves())
+                        .message("The move log is missing move " + (replayed.getMoves() + 1)).build();
+            }
+            try {
+                replayed.replay(move);
+            } catch (MinesweeperApiException e) {
+                return result.replayedStatus(replayed.getStatus()).movesReplayed(replayed.getMoves())
+                        .message("Move " + move.getSeq() + " could not be replayed: " + e.getMessage()).build();
+            }
+        }
+
+        final int mismatchedCells = mismatchedCells(expected.getBoard(), replayed.getBoard());
+        // Pauses are not moves, a paused game is compared as an active one
+        final Status expectedStatus = Status.PAUSED.equals(expected.getStatus()) ? Status.ACTIVE : expected.getStatus();
+        return result.replayedStatus(replayed.getStatus()).movesReplayed(replayed.getMoves())
+                .mismatchedCells(mismatchedCells)
+                .verified(expectedStatus.equals(replayed.getStatus()) && mismatchedCells == 0
+                        && expected.getMoves() == replayed.getMoves())
+                .build();
+    }
+
+    private static int mismatchedCells(final Board expected, final Board replayed) {
+        if (expected == null || replayed == null) {
+            // A lazy game without moves has no board yet
+            return expected == replayed ? 0 : Math.max(size(expected), size(replayed));
+        }
+        if (expected.getRows() != replayed.getRows() || expected.getColumns() != replayed.getColumns()) {
+            return Math.max(expected.size(), replayed.size());
+        }
+        int mismatched = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.isRecognized(i) != replayed.isRecognized(i)) {
+                mismatched++;
+            }
+        }
+        return mismatched;
+    }
+
+    private static int size(final Board board) {
+        return board != null ? board.size() : 0;
+    }
+
+    private static final class VerifyTask extends RecursiveAction {
+
+        private final List<RecordedGame> games;
+        private final ReplayResult[] results;
+        private final int from;
+        private final int to;
+
+        private VerifyTask(final List<RecordedGame> games, final ReplayResult[] results, final int from,
+                           final int to) {
+            this.games = games;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= GAMES_PER_TASK) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.results[i] = verify(this.games.get(i));
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new VerifyTask(this.games, this.results, this.from, middle),
+                    new VerifyTask(this.games, this.results, middle, this.to));
+        }
+    }
+}
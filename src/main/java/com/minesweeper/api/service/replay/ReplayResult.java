@@ -0,0 +1,21 @@
+package com.minesweeper.api.service.replay;
+
+import com.minesweeper.api.model.Status;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReplayResult {
+
+    private String mineSweeperId;
+    private boolean verified;
+    private Status expectedStatus;
+    private Status replayedStatus;
+    private long movesReplayed;
+    // Cells recognized in only one of the stored and the replayed boards
+    private int mismatchedCells;
+    // Why the game could not be verified, when it could not
+    private String message;
+
+}
@@ -0,0 +1,77 @@
+package com.minesweeper.api.config;
+
+import com.minesweeper.api.model.Board;
+import com.minesweeper.api.model.BoardConverter;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void bindRegistry() {
+        Metrics.addRegistry(this.registry);
+    }
+
+    @AfterEach
+    void unbindRegistry() {
+        Metrics.removeRegistry(this.registry);
+    }
+
+    @Test
+    void sizeBucketsAreNamedAfterThePresetsTheyHold() {
+        assertEquals("beginner", GameMetrics.sizeBucket(9 * 9));
+        assertEquals("intermediate", GameMetrics.sizeBucket(16 * 16));
+        assertEquals("expert", GameMetrics.sizeBucket(16 * 30));
+        assertEquals("large", GameMetrics.sizeBucket(100 * 100));
+        assertEquals("huge", GameMetrics.sizeBucket(500 * 500));
+        assertEquals("maximum", GameMetrics.sizeBucket(1000 * 1000));
+        assertEquals("unknown", GameMetrics.sizeBucket(null));
+    }
+
+    @Test
+    void storedBoardsRecordTheirEncodedSize() {
+        MineSweeper mineSweeper = MineSweeper.builder().status(Status.ACTIVE).rows(16).columns(30).bombs(99).build();
+        mineSweeper.initCells();
+        Board board = mineSweeper.getBoard();
+        byte[] encoded = new BoardConverter().convert(board);
+
+        assertEquals(1, registry.get("minesweeper.board.encoding").tags("size", "expert", "operation", "encode")
+                .timer().count());
+        assertEquals(encoded.length, registry.get("minesweeper.board.stored.size").tag("operation", "encode")
+                .summary().totalAmount());
+        // The model only times what the service layer can not see
+        assertNull(registry.find("minesweeper.board.generation").timer());
+    }
+
+    @Test
+    void metersAreRegisteredOnceAndReachRegistriesBoundLater() {
+        MineSweeper mineSweeper = MineSweeper.builder().rows(9).columns(9).bombs(10).build();
+        SimpleMeterRegistry later = new SimpleMeterRegistry();
+
+        GameMetrics.recordRepository("findById", mineSweeper, GameMetrics.SUCCESS, 1_000L);
+        Timer timer = registry.get("minesweeper.repository").tags("size", "beginner", "operation", "findById",
+                "outcome", GameMetrics.SUCCESS).timer();
+        Metrics.addRegistry(later);
+        try {
+            GameMetrics.recordRepository("findById", mineSweeper, GameMetrics.SUCCESS, 1_000L);
+
+            assertSame(timer, registry.get("minesweeper.repository").tags("size", "beginner", "operation", "findById",
+                    "outcome", GameMetrics.SUCCESS).timer());
+            assertEquals(2, timer.count());
+            assertEquals(1, later.get("minesweeper.repository").tags("size", "beginner", "operation", "findById",
+                    "outcome", GameMetrics.SUCCESS).timer().count());
+        } finally {
+            Metrics.removeRegistry(later);
+        }
+    }
+}
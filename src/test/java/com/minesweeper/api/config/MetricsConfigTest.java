@@ -0,0 +1,66 @@
+package com.minesweeper.api.config;
+
+import com.minesweeper.api.repository.MineSweeperRepository;
+import com.minesweeper.api.repository.TileRepository;
+import com.minesweeper.api.service.cache.GameSessionCache;
+import com.minesweeper.api.service.chunk.TileCache;
+import com.minesweeper.api.service.event.GameEventPublisher;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import com.minesweeper.api.service.pool.BoardPool;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private BoardPool boardPool;
+
+    private GameEventPublisher gameEventPublisher;
+
+    @BeforeEach
+    public void setup() {
+        GameLockRegistry gameLockRegistry = new GameLockRegistry(16, false);
+        boardPool = new BoardPool(true, 2, List.of("9x9x10", "16x16x40"));
+        gameEventPublisher = new GameEventPublisher(4, Duration.ofMinutes(1), 1);
+        new MetricsConfig().gameStatisticsMetrics(
+                new GameSessionCache(Mockito.mock(MineSweeperRepository.class), gameLockRegistry, false, 10,
+                        Duration.ofMinutes(10)),
+                gameLockRegistry, boardPool, gameEventPublisher,
+                new TileCache(Mockito.mock(TileRepository.class), 16)).bindTo(registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        boardPool.shutdown();
+        gameEventPublisher.shutdown();
+    }
+
+    @Test
+    void boardPoolExposesItsAvailableBoardsPerPresetAndItsRefillLag() throws InterruptedException {
+        // Prepare scenario: a take from the drained pool is refilled in the background
+        boardPool.take(9, 9, 10);
+        for (int i = 0; i < 100 && boardPool.getStatistics().getRefills() < 1; i++) {
+            Thread.sleep(20);
+        }
+
+        // Assertions
+        assertEquals(1, registry.get("minesweeper.board.pool.available").tag("preset", "9x9x10").gauge().value());
+        assertEquals(0, registry.get("minesweeper.board.pool.available").tag("preset", "16x16x40").gauge().value());
+        FunctionTimer refillLag = registry.get("minesweeper.board.pool.refill.lag").functionTimer();
+        assertEquals(1, refillLag.count());
+        assertTrue(refillLag.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(refillLag.totalTime(TimeUnit.NANOSECONDS),
+                registry.get("minesweeper.board.pool.refill.lag.max").timeGauge().value(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,37 @@
+package com.minesweeper.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadsTest {
+
+    @Test
+    void virtualThreadsAreOnlyAvailableFromJava21() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isAvailable());
+    }
+
+    @Test
+    void newThreadPerTaskExecutorRunsTasksOrFailsOnOlderRuntimes() throws Exception {
+        if (!VirtualThreads.isAvailable()) {
+            try {
+                VirtualThreads.newThreadPerTaskExecutor();
+                fail("Virtual threads should not be available on ".concat(System.getProperty("java.version")));
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage().startsWith("Virtual threads need a Java 21 runtime"));
+            }
+            return;
+        }
+
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        try {
+            assertEquals("virtual", executor.submit(() -> Thread.currentThread().toString().contains("Virtual")
+                    ? "virtual" : "platform").get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.minesweeper.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardConverterTest {
+
+    private final BoardConverter converter = new BoardConverter();
+
+    @Test
+    void boardRoundTripsThroughBinaryEncoding() {
+        MineSweeper mineSweeper = MineSweeper.builder().status(Status.ACTIVE).rows(30).columns(17).bombs(60).build();
+        mineSweeper.initCells();
+        mineSweeper.flagCell(0, 0);
+        mineSweeper.flagCell(29, 16);
+        Board board = mineSweeper.getBoard();
+        board.reveal(board.index(15, 8));
+
+        byte[] encoded = converter.convert(board);
+        Board decoded = converter.unconvert(encoded);
+
+        assertEquals(BoardConverter.FORMAT_VERSION, encoded[0]);
+        assertEquals(board, decoded);
+        assertEquals(board.getHiddenSafeCells(), decoded.getHiddenSafeCells());
+        assertEquals(2, decoded.getFlagsPlaced());
+    }
+
+    @Test
+    void largeBoardsFitInADynamoDBItem() {
+        MineSweeper mineSweeper = MineSweeper.builder().status(Status.ACTIVE).rows(500).columns(500).bombs(40000).build();
+        mineSweeper.initCells();
+
+        assertTrue(converter.convert(mineSweeper.getBoard()).length < 400 * 1024);
+    }
+
+    @Test
+    void unsupportedFormatVersionIsRejected() {
+        assertThrows(RuntimeException.class, () -> converter.unconvert(new byte[] { 99 }));
+    }
+
+    @Test
+    void legacyCellListIsMigratedToTheBoard() {
+        Board board = new Board(3, 4);
+        board.placeBomb(5);
+        List<Cell> legacyCells = board.toCells();
+
+        MineSweeper mineSweeper = new MineSweeper();
+        mineSweeper.setLegacyCells(legacyCells);
+
+        assertEquals(board, mineSweeper.getBoard());
+        assertNull(mineSweeper.getLegacyCells());
+    }
+}
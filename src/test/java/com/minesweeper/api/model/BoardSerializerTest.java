@@ -0,0 +1,103 @@
+package com.minesweeper.api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minesweeper.api.dto.BoardEncoding;
+import com.minesweeper.api.dto.CompactMineSweeper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void cellsAreWrittenAsJacksonWritesTheCellBeans() throws Exception {
+        MineSweeper mineSweeper = game();
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(mineSweeper));
+
+        assertEquals(mapper.readTree(mapper.writeValueAsString(mineSweeper.getCells())), json.get("cells"));
+        assertEquals(mineSweeper.getId(), json.get("id").asText());
+        assertFalse(json.has("board"));
+    }
+
+    @Test
+    void cellsRoundTripThroughJson() throws Exception {
+        MineSweeper mineSweeper = game();
+
+        MineSweeper restored = mapper.readValue(mapper.writeValueAsString(mineSweeper), MineSweeper.class);
+
+        assertEquals(mineSweeper.getBoard(), restored.getBoard());
+    }
+
+    @Test
+    void rowsHaveTheVisibleStateOfEveryCell() throws Exception {
+        MineSweeper mineSweeper = game();
+        Board board = mineSweeper.getBoard();
+
+        JsonNode json = mapper.valueToTree(CompactMineSweeper.of(mineSweeper, BoardEncoding.ROWS));
+
+        JsonNode rows = json.get("rows");
+        assertFalse(json.has("cells"));
+        assertFalse(json.has("bitmap"));
+        assertEquals(mineSweeper.getId(), json.get("id").asText());
+        assertEquals(board.getRows(), rows.size());
+        for (int x = 0; x < board.getRows(); x++) {
+            String row = rows.get(x).asText();
+            assertEquals(board.getColumns(), row.length());
+            for (int y = 0; y < board.getColumns(); y++) {
+                int index = board.index(x, y);
+                char expected = board.isRecognized(index) ? (char) ('0' + board.getValue(index))
+                        : board.isFlagged(index) ? 'F' : '#';
+                assertEquals(expected, row.charAt(y));
+            }
+        }
+    }
+
+    @Test
+    void bitmapDisclosesBombsOnceTheGameEnded() throws Exception {
+        MineSweeper mineSweeper = game();
+        Board board = mineSweeper.getBoard();
+        int bomb = board.getBombs().nextSetBit(0);
+        mineSweeper.recognizeCell(board.row(bomb), board.column(bomb));
+
+        JsonNode json = mapper.valueToTree(CompactMineSweeper.of(mineSweeper, BoardEncoding.BITMAP));
+        byte[] bitmap = Base64.getDecoder().decode(json.get("bitmap").asText());
+
+        assertEquals(Status.GAME_OVER, mineSweeper.getStatus());
+        assertEquals((board.size() + 1) / 2, bitmap.length);
+        for (int i = 0; i < board.size(); i++) {
+            int state = (bitmap[i / 2] >> (i % 2 == 0 ? 4 : 0)) & 0xF;
+            assertEquals(board.visibleState(i, true), state);
+            assertEquals(board.isBomb(i), state == Board.BOMB);
+        }
+    }
+
+    @Test
+    void lazyGamesHaveNoBoard() throws Exception {
+        MineSweeper mineSweeper = MineSweeper.builder().id("lazy").status(Status.ACTIVE).rows(5).columns(5).bombs(3)
+                .build();
+        mineSweeper.initLazyCells();
+
+        assertTrue(mapper.valueToTree(mineSweeper).get("cells").isNull());
+        assertTrue(mapper.valueToTree(CompactMineSweeper.of(mineSweeper, BoardEncoding.ROWS)).get("rows").isNull());
+    }
+
+    private static MineSweeper game() {
+        MineSweeper mineSweeper = MineSweeper.builder().id("game").status(Status.ACTIVE).rows(13).columns(7)
+                .bombs(12).seed(3L).build();
+        mineSweeper.initCells();
+        Board board = mineSweeper.getBoard();
+        List<Cell> cells = mineSweeper.getCells();
+        Cell blank = cells.stream().filter(c -> !c.isBomb() && c.getValue() == 0).findFirst().orElseThrow();
+        mineSweeper.recognizeCell(blank.getX(), blank.getY());
+        int hidden = board.getRecognized().nextClearBit(0);
+        mineSweeper.flagCell(board.row(hidden), board.column(hidden));
+        return mineSweeper;
+    }
+}
@@ -0,0 +1,191 @@
+package com.minesweeper.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardTest {
+
+    @Test
+    void placeBombIncrementsNeighbourValues() {
+        Board board = new Board(3, 3);
+        board.placeBomb(board.index(0, 0));
+        board.placeBomb(board.index(2, 2));
+
+        assertEquals(2, board.getBombCount());
+        assertEquals(7, board.getHiddenSafeCells());
+        assertEquals(2, board.getValue(board.index(1, 1)));
+        assertEquals(1, board.getValue(board.index(0, 1)));
+        assertEquals(0, board.getValue(board.index(0, 2)));
+    }
+
+    @Test
+    void neighboursAreClippedToTheGrid() {
+        Board board = new Board(4, 5);
+        int[] buffer = new int[8];
+
+        assertEquals(3, board.neighbours(board.index(0, 0), buffer));
+        assertEquals(5, board.neighbours(board.index(0, 2), buffer));
+        assertEquals(8, board.neighbours(board.index(2, 2), buffer));
+    }
+
+    @Test
+    void cellsRoundTripThroughTheBoard() {
+        Board board = new Board(4, 6);
+        board.placeBomb(board.index(3, 5));
+        board.toggleFlag(board.index(1, 2));
+        board.recognize(board.index(0, 0));
+
+        List<Cell> cells = board.toCells();
+        Board restored = Board.fromCells(cells);
+
+        assertEquals(24, cells.size());
+        assertEquals(board, restored);
+        assertEquals(4, restored.getRows());
+        assertEquals(6, restored.getColumns());
+        assertEquals(1, restored.getBombCount());
+        assertEquals(1, restored.getFlagsPlaced());
+        assertEquals(22, restored.getHiddenSafeCells());
+    }
+
+    @Test
+    void revealFloodFillsLargeEmptyRegionsIteratively() {
+        Board board = new Board(1000, 1000);
+        board.placeBomb(board.index(0, 0));
+
+        int revealed = board.reveal(board.index(999, 999));
+
+        assertEquals(board.size() - 1, revealed);
+        assertEquals(board.size() - 1, board.recognizedCount());
+        assertFalse(board.isRecognized(board.index(0, 0)));
+        assertEquals(0, board.getHiddenSafeCells());
+        assertEquals(0, board.reveal(board.index(500, 500)));
+    }
+
+    @Test
+    void revealDoesNotKeepTheQueueOfAHugeRegion() {
+        Board board = new Board(1000, 1000);
+        board.placeBomb(board.index(0, 0));
+        board.reveal(board.index(999, 999));
+
+        assertTrue(Board.retainedFloodFillCapacity() <= 16 * 1024);
+
+        Board next = new Board(300, 300);
+        next.placeBomb(next.index(0, 0));
+        assertEquals(next.size() - 1, next.reveal(next.index(299, 299)));
+        assertEquals(0, next.getHiddenSafeCells());
+    }
+
+    @Test
+    void copiesDoNotShareStateWithTheBoard() {
+        Board board = new Board(3, 3);
+        board.placeBomb(board.index(1, 1));
+        Board copy = board.copy();
+
+        board.toggleFlag(board.index(1, 1));
+        board.reveal(board.index(0, 0));
+
+        assertEquals(1, copy.getBombCount());
+        assertEquals(0, copy.getFlagsPlaced());
+        assertEquals(0, copy.recognizedCount());
+        assertEquals(8, copy.getHiddenSafeCells());
+        assertEquals(1, copy.getValue(copy.index(0, 0)));
+    }
+
+    @Test
+    void revealStopsAtCellsWithValue() {
+        Board board = new Board(3, 3);
+        board.placeBomb(board.index(1, 1));
+
+        assertEquals(1, board.reveal(board.index(0, 0)));
+        assertEquals(1, board.recognizedCount());
+    }
+
+    @Test
+    void toggleFlagKeepsFlagsPlacedCounter() {
+        Board board = new Board(2, 2);
+        board.toggleFlag(0);
+        board.toggleFlag(1);
+        board.toggleFlag(0);
+
+        assertEquals(1, board.getFlagsPlaced());
+    }
+
+    @Test
+    void placeBombsPlacesTheExactAmountAtAnyDensity() {
+        for (int amount : new int[] { 1, 50, 500, 999 }) {
+            Board board = new Board(25, 40);
+            board.placeBombs(amount, new SplittableRandom(amount));
+
+            assertEquals(amount, board.getBombCount());
+            assertEquals(board.size() - amount, board.getHiddenSafeCells());
+        }
+    }
+
+    @Test
+    void placeBombsKeepsTheSafeCellAndItsNeighboursFree() {
+        for (long seed = 0; seed < 50; seed++) {
+            Board board = new Board(10, 10);
+            board.placeBombs(91, new SplittableRandom(seed), board.index(4, 0));
+
+            assertEquals(91, board.getBombCount());
+            for (int x = 3; x <= 5; x++) {
+                for (int y = 0; y <= 1; y++) {
+                    assertFalse(board.isBomb(board.index(x, y)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void placeBombsOnlyKeepsTheSafeCellFreeWhenThereIsNoRoom() {
+        Board board = new Board(3, 3);
+        board.placeBombs(8, new SplittableRandom(7), board.index(1, 1));
+
+        assertEquals(8, board.getBombCount());
+        assertFalse(board.isBomb(board.index(1, 1)));
+    }
+
+    @Test
+    void chordRevealsUnflaggedNeighboursWhenFlagsMatchTheValue() {
+        Board board = new Board(5, 5);
+        board.placeBomb(board.index(0, 0));
+        board.reveal(board.index(1, 1));
+        board.toggleFlag(board.index(0, 0));
+
+        int revealed = board.chord(board.index(1, 1), null);
+
+        // The empty neighbours cascade over the whole board but the flagged bomb
+        assertEquals(23, revealed);
+        assertEquals(0, board.getHiddenSafeCells());
+        assertFalse(board.isRecognized(board.index(0, 0)));
+    }
+
+    @Test
+    void chordDoesNothingWhenFlagsDoNotMatchTheValue() {
+        Board board = new Board(3, 3);
+        board.placeBomb(board.index(0, 0));
+        board.reveal(board.index(1, 1));
+
+        assertEquals(0, board.chord(board.index(1, 1), null));
+        assertEquals(0, board.chord(board.index(2, 2), null));
+        assertEquals(1, board.recognizedCount());
+    }
+
+    @Test
+    void chordWithAWrongFlagRevealsTheBomb() {
+        Board board = new Board(3, 3);
+        board.placeBomb(board.index(0, 0));
+        board.reveal(board.index(1, 1));
+        board.toggleFlag(board.index(2, 2));
+
+        board.chord(board.index(1, 1), null);
+
+        assertTrue(board.isRecognized(board.index(0, 0)));
+        assertTrue(board.isFlagged(board.index(2, 2)));
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.minesweeper.api.model.chunk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedBoardTest {
+
+    // Low enough for a board of a few thousand cells to have no bombs at all
+    private static final double NO_BOMBS = 1e-12;
+
+    @Test
+    void sameSeedGeneratesTheSameBombsWhateverTheOrder() {
+        ChunkedBoard board = new ChunkedBoard(42L, 0.2, 0, 0, new Tiles());
+        ChunkedBoard other = new ChunkedBoard(42L, 0.2, 0, 0, new Tiles());
+
+        // The other board generates its tiles in reverse order
+        for (int x = 49; x >= -50; x--) {
+            for (int y = 49; y >= -50; y--) {
+                other.isBomb(x, y);
+            }
+        }
+        int bombs = 0;
+        for (int x = -50; x < 50; x++) {
+            for (int y = -50; y < 50; y++) {
+                assertEquals(board.isBomb(x, y), other.isBomb(x, y));
+                bombs += board.isBomb(x, y) ? 1 : 0;
+            }
+        }
+        // 10000 cells at 20%
+        assertTrue(bombs > 1700 && bombs < 2300);
+    }
+
+    @Test
+    void valuesCountBombsInNeighbourTiles() {
+        ChunkedBoard board = new ChunkedBoard(7L, 0.3, 0, 0, new Tiles());
+
+        for (int x = Tile.SIZE - 1; x <= Tile.SIZE; x++) {
+            for (int y = -1; y <= 0; y++) {
+                int expected = 0;
+                for (int i = x - 1; i <= x + 1; i++) {
+                    for (int j = y - 1; j <= y + 1; j++) {
+                        if ((i != x || j != y) && board.isBomb(i, j)) {
+                            expected++;
+                        }
+                    }
+                }
+                assertEquals(expected, board.getValue(x, y));
+            }
+        }
+    }
+
+    @Test
+    void revealFloodFillsAcrossTilesLoadingThemLazily() {
+        Tiles tiles = new Tiles();
+        ChunkedBoard board = new ChunkedBoard(1L, NO_BOMBS, 100, 100, tiles);
+
+        int revealed = board.reveal(50, 50, Integer.MAX_VALUE, null);
+
+        assertEquals(100 * 100, revealed);
+        // 100 cells per side span 4 tiles
+        assertEquals(16, tiles.loaded.size());
+        assertTrue(board.isRecognized(0, 99));
+        assertEquals(0, board.reveal(0, 0, Integer.MAX_VALUE, null));
+    }
+
+    @Test
+    void revealOnlyLoadsTheTilesItReaches() {
+        Tiles tiles = new Tiles();
+        ChunkedBoard board = new ChunkedBoard(3L, 0.99, 1_000_000, 1_000_000, tiles);
+
+        board.reveal(500_000, 500_000, Integer.MAX_VALUE, null);
+
+        assertEquals(1, tiles.loaded.size());
+    }
+
+    @Test
+    void revealStopsAtTheLimitAndCanBeContinued() {
+        ChunkedBoard board = new ChunkedBoard(1L, NO_BOMBS, 0, 0, new Tiles());
+        Map<Long, Boolean> reported = new HashMap<>();
+
+        int revealed = board.reveal(0, 0, 500, cell -> reported.put(cell, true));
+
+        assertEquals(500, revealed);
+        assertEquals(500, reported.size());
+        reported.keySet().forEach(cell ->
+                assertTrue(board.isRecognized(ChunkedBoard.unpackX(cell), ChunkedBoard.unpackY(cell))));
+
+        // The region border is left hidden and clicking it continues the fill
+        assertFalse(board.isRecognized(20, 20));
+        assertEquals(500, board.reveal(20, 20, 500, null));
+    }
+
+    @Test
+    void safeCellAndItsNeighboursHaveNoBombs() {
+        ChunkedBoard board = new ChunkedBoard(5L, 0.95, 0, 0, new Tiles());
+        board.setSafeCell(Tile.SIZE, -1);
+
+        for (int x = Tile.SIZE - 1; x <= Tile.SIZE + 1; x++) {
+            for (int y = -2; y <= 0; y++) {
+                assertFalse(board.isBomb(x, y));
+            }
+        }
+        // The safe cell has no bombs near, so its neighbours are revealed with it
+        assertEquals(0, board.getValue(Tile.SIZE, -1));
+        assertEquals(9, board.reveal(Tile.SIZE, -1, Integer.MAX_VALUE, null));
+    }
+
+    @Test
+    void cellsOutsideABoundedBoardAreNeverBombs() {
+        ChunkedBoard board = new ChunkedBoard(5L, 0.95, 10, 10, new Tiles());
+
+        assertFalse(board.contains(-1, 0));
+        assertFalse(board.contains(0, 10));
+        assertFalse(board.isBomb(-1, 0));
+        assertFalse(board.isBomb(10, 10));
+    }
+
+    @Test
+    void tileStateRoundTrips() {
+        Tile tile = new Tile("game", 0, 0);
+        tile.toggleFlag(3);
+        tile.recognize(0);
+        tile.recognize(Tile.CELLS - 1);
+
+        Tile restored = new Tile();
+        restored.setState(tile.getState());
+
+        assertEquals(2 * Tile.CELLS / 8, tile.getState().length);
+        assertTrue(restored.isFlagged(3));
+        assertFalse(restored.isFlagged(0));
+        assertTrue(restored.isRecognized(0));
+        assertTrue(restored.isRecognized(Tile.CELLS - 1));
+        assertFalse(restored.isRecognized(3));
+        assertTrue(tile.isDirty());
+        assertFalse(restored.isDirty());
+    }
+
+    private static class Tiles implements TileSource {
+
+        private final Map<String, Tile> loaded = new HashMap<>();
+
+        @Override
+        public Tile tile(int tileX, int tileY) {
+            return this.loaded.computeIfAbsent(Tile.key(tileX, tileY), key -> new Tile("game", tileX, tileY));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.minesweeper.api.repository;
+
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.minesweeper.api.model.MineSweeper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncMineSweeperRepositoryTest {
+
+    private final MineSweeperRepository mineSweeperRepository = Mockito.mock(MineSweeperRepository.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "io"));
+
+    private final AsyncMineSweeperRepository repository = new AsyncMineSweeperRepository(mineSweeperRepository, executor);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callsRunOnTheIoThreads() {
+        // Prepare scenario
+        MineSweeper mineSweeper = MineSweeper.builder().id("game").build();
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById("game")).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return Optional.of(mineSweeper);
+        });
+
+        Optional<MineSweeper> found = repository.findById("game").join();
+
+        // Assertions
+        assertSame(mineSweeper, found.orElseThrow());
+        assertEquals("io", thread.get());
+    }
+
+    @Test
+    void failuresCompleteTheFutureExceptionally() {
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findVersionById("game"))
+                .thenThrow(new ProvisionedThroughputExceededException("throttled"));
+
+        try {
+            repository.findVersionById("game").join();
+            fail();
+        } catch (CompletionException e) {
+            // Assertions
+            assertTrue(e.getCause() instanceof ProvisionedThroughputExceededException);
+        }
+    }
+}
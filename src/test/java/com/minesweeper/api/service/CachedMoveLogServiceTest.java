@@ -0,0 +1,211 @@
+package com.minesweeper.api.service;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.dto.BatchCellRequest;
+import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.model.Cell;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.GameConflictException;
+import com.minesweeper.api.repository.GameMoveRepository;
+import com.minesweeper.api.repository.MineSweeperRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Game reads and moves with both the session cache and the move log enabled, so every read catches up the cached
+ * game with the logged moves.
+ */
+@SpringBootTest(properties = { "minesweeper.session-cache.enabled=true", "minesweeper.move-log.enabled=true" })
+public class CachedMoveLogServiceTest {
+
+    private static final int ROWS = 16;
+
+    private static final int COLUMNS = 30;
+
+    @Autowired
+    private MineSweeperService mineSweeperService;
+
+    @MockBean
+    private MineSweeperRepository mineSweeperRepository;
+
+    @MockBean
+    private GameMoveRepository gameMoveRepository;
+
+    private final ConcurrentSkipListMap<Long, GameMove> loggedMoves = new ConcurrentSkipListMap<>();
+
+    // Move another instance logs right after the next move logged by this one
+    private final AtomicReference<GameMove> racingMove = new AtomicReference<>();
+
+    private String mineSweeperId;
+
+    @BeforeEach
+    public void setup() {
+        mineSweeperId = UUID.randomUUID().toString();
+        MineSweeper mineSweeper = MineSweeper.builder().id(mineSweeperId).status(Status.ACTIVE).rows(ROWS)
+                .columns(COLUMNS).bombs(99).seed(7L).creationTime(new Date()).build();
+        mineSweeper.initCells();
+
+        // Mock responses: the move log keeps every move, and refuses a sequence number already taken
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenAnswer(invocation -> Optional.of(mineSweeper.copy()));
+        Mockito.when(mineSweeperRepository.save(any(MineSweeper.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.doAnswer(invocation -> {
+            GameMove move = invocation.getArgument(0);
+            if (loggedMoves.putIfAbsent(move.getSeq(), move) != null) {
+                throw new ConditionalCheckFailedException("Move already logged");
+            }
+            GameMove racing = racingMove.getAndSet(null);
+            if (racing != null) {
+                loggedMoves.put(racing.getSeq(), racing);
+            }
+            return null;
+        }).when(gameMoveRepository).append(any(GameMove.class));
+        Mockito.doAnswer(invocation -> {
+            GameMove fence = invocation.getArgument(0);
+            GameMove taken = loggedMoves.putIfAbsent(fence.getSeq(), fence);
+            if (taken != null && !taken.isFence()) {
+                throw new ConditionalCheckFailedException("Move already logged");
+            }
+            return null;
+        }).when(gameMoveRepository).fence(any(GameMove.class));
+        Mockito.doAnswer(invocation -> loggedMoves.computeIfPresent(invocation.getArgument(1),
+                (seq, move) -> move.isFence() ? null : move))
+                .when(gameMoveRepository).removeFence(eq(mineSweeperId), anyLong());
+        Mockito.when(gameMoveRepository.findAfter(eq(mineSweeperId), anyLong())).thenAnswer(invocation ->
+                new ArrayList<>(loggedMoves.tailMap(invocation.getArgument(1, Long.class), false).values()));
+    }
+
+    @Test
+    void readsRunningAlongMovesNeverSeeAMoveTwiceOrHalfApplied() throws Exception {
+        // Prepare scenario: every move flags a different cell, so a consistent game has as many flags as moves
+        final int moves = ROWS * COLUMNS;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> inconsistentReads = new ArrayList<>();
+
+        try {
+            Future<?> player = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < moves; i++) {
+                    mineSweeperService.cellAction(CellRequest.builder().mineSweeperId(mineSweeperId)
+                            .x(i / COLUMNS).y(i % COLUMNS).build(), CellAction.FLAG);
+                }
+                return null;
+            });
+            Future<?> spectator = executor.submit(() -> {
+                start.await();
+                while (!player.isDone()) {
+                    MineSweeper read = mineSweeperService.getMineSweeperById(mineSweeperId);
+                    if (read.getFlagsPlaced() != read.getMoves()
+                            || read.getCells().stream().filter(Cell::isFlagged).count() != read.getMoves()) {
+                        inconsistentReads.add(read.getMoves() + " moves, " + read.getFlagsPlaced() + " flags");
+                    }
+                }
+                return null;
+            });
+            start.countDown();
+            player.get(60, TimeUnit.SECONDS);
+            spectator.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assertions
+        MineSweeper played = mineSweeperService.getMineSweeperById(mineSweeperId);
+        assertEquals(List.of(), inconsistentReads);
+        assertEquals(moves, played.getMoves());
+        assertEquals(moves, played.getFlagsPlaced());
+        assertEquals(moves, loggedMoves.size());
+    }
+
+    @Test
+    void aPausedGameIsFencedUntilItIsResumed() {
+        // Prepare scenario
+        mineSweeperService.cellAction(CellRequest.builder().mineSweeperId(mineSweeperId).x(0).y(0).build(),
+                CellAction.FLAG);
+
+        mineSweeperService.pauseResumeMineSweeper(mineSweeperId);
+
+        // Assertions: a move logged by another instance that still sees the game active is refused
+        assertTrue(loggedMoves.get(2L).isFence());
+        try {
+            gameMoveRepository.append(GameMove.builder().gameId(mineSweeperId).seq(2).x(1).y(1)
+                    .action(CellAction.FLAG).build());
+            // If it gets here, the test need to fail
+            fail();
+        } catch (ConditionalCheckFailedException e) {
+            assertTrue(loggedMoves.get(2L).isFence());
+        }
+
+        mineSweeperService.pauseResumeMineSweeper(mineSweeperId);
+        assertFalse(loggedMoves.containsKey(2L));
+        mineSweeperService.cellAction(CellRequest.builder().mineSweeperId(mineSweeperId).x(1).y(1).build(),
+                CellAction.FLAG);
+        assertFalse(loggedMoves.get(2L).isFence());
+        assertEquals(2, mineSweeperService.getMineSweeperById(mineSweeperId).getMoves());
+    }
+
+    @Test
+    void aBatchLoggedOnlyInPartDropsTheCachedGame() {
+        // Prepare scenario
+        mineSweeperService.getMineSweeperById(mineSweeperId);
+        // Another instance logs its move as the second one, once the first move of the batch is logged
+        racingMove.set(GameMove.builder().gameId(mineSweeperId).seq(2).x(5).y(5).action(CellAction.FLAG).build());
+        BatchCellRequest batch = BatchCellRequest.builder().mineSweeperId(mineSweeperId).moves(List.of(
+                CellRequest.builder().x(0).y(0).action(CellAction.FLAG).build(),
+                CellRequest.builder().x(0).y(1).action(CellAction.FLAG).build())).build();
+
+        try {
+            mineSweeperService.cellActions(batch);
+            // If it gets here, the test need to fail
+            fail();
+        } catch (GameConflictException e) {
+            assertEquals("The game has been modified concurrently, only the first 1 moves were applied", e.getMessage());
+        }
+
+        // Assertions: the game is the logged moves, not the batch applied in the cache
+        MineSweeper reloaded = mineSweeperService.getMineSweeperById(mineSweeperId);
+        assertEquals(2, reloaded.getMoves());
+        assertTrue(reloaded.getCell(0, 0).isFlagged());
+        assertTrue(reloaded.getCell(5, 5).isFlagged());
+        assertFalse(reloaded.getCell(0, 1).isFlagged());
+    }
+
+    @Test
+    void aGameSavedWholeChangesItsETagBeforeItIsWritten() {
+        // Prepare scenario: the client flags a cell of the game it loaded and sends the whole game back
+        MineSweeper loaded = mineSweeperService.getMineSweeperById(mineSweeperId);
+        String before = mineSweeperService.getMineSweeperETag(mineSweeperId);
+        loaded.getBoard().toggleFlag(loaded.getBoard().index(0, 0));
+
+        mineSweeperService.saveMineSweeper(loaded);
+
+        // Assertions: the cached game is not written yet, so its version, moves and status are still the same
+        assertNotEquals(before, mineSweeperService.getMineSweeperETag(mineSweeperId));
+        assertTrue(mineSweeperService.getMineSweeperById(mineSweeperId).getCell(0, 0).isFlagged());
+    }
+}
@@ -0,0 +1,125 @@
+package com.minesweeper.api.service;
+
+import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.chunk.ChunkedBoard;
+import com.minesweeper.api.model.chunk.ChunkedMineSweeper;
+import com.minesweeper.api.model.chunk.Tile;
+import com.minesweeper.api.repository.ChunkedMineSweeperRepository;
+import com.minesweeper.api.repository.TileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@SpringBootTest
+public class ChunkedMineSweeperServiceTest {
+
+    // Low enough for the cells around the origin to have no bombs at all
+    private static final double NO_BOMBS = 1e-12;
+
+    private static final long SEED = 42L;
+
+    @Autowired
+    private ChunkedMineSweeperService chunkedMineSweeperService;
+
+    @MockBean
+    private ChunkedMineSweeperRepository chunkedMineSweeperRepository;
+
+    @MockBean
+    private TileRepository tileRepository;
+
+    private String mineSweeperId;
+
+    @BeforeEach
+    public void setup() {
+        mineSweeperId = UUID.randomUUID().toString();
+
+        // Mock responses: every write bumps the version of the game, as the mapper does
+        Mockito.when(chunkedMineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(storedGame(1L)));
+        Mockito.when(chunkedMineSweeperRepository.save(any(ChunkedMineSweeper.class))).thenAnswer(invocation -> {
+            ChunkedMineSweeper saved = invocation.getArgument(0);
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+        Mockito.when(tileRepository.findById(eq(mineSweeperId), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void tilesWrittenByAnotherInstanceAreReadAgain() {
+        // Prepare scenario
+        flag(0, 0);
+
+        // Another instance flags a cell of the same tile, and writes the game as a newer version
+        Tile otherTile = new Tile(mineSweeperId, 0, 0);
+        ChunkedBoard otherBoard = board(otherTile);
+        otherBoard.toggleFlag(0, 0);
+        otherBoard.toggleFlag(0, 1);
+        Mockito.when(tileRepository.findById(eq(mineSweeperId), eq(Tile.key(0, 0)))).thenReturn(Optional.of(otherTile));
+        Mockito.when(chunkedMineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(storedGame(3L)));
+
+        flag(0, 2);
+
+        // Assertions
+        ChunkedBoard written = board(lastWrittenTile());
+        assertTrue(written.isFlagged(0, 0));
+        assertTrue(written.isFlagged(0, 1));
+        assertTrue(written.isFlagged(0, 2));
+    }
+
+    @Test
+    void failedSaveDropsTheTilesItChanged() {
+        // Mock responses
+        Mockito.when(chunkedMineSweeperRepository.save(any(ChunkedMineSweeper.class)))
+                .thenThrow(new RuntimeException("Throttled"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        try {
+            flag(0, 0);
+            // If it gets here, the test need to fail
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Throttled", e.getMessage());
+        }
+        flag(0, 1);
+
+        // Assertions
+        Mockito.verify(tileRepository, Mockito.times(2)).findById(mineSweeperId, Tile.key(0, 0));
+        ChunkedBoard written = board(lastWrittenTile());
+        assertFalse(written.isFlagged(0, 0));
+        assertTrue(written.isFlagged(0, 1));
+    }
+
+    private void flag(int x, int y) {
+        chunkedMineSweeperService.cellAction(CellRequest.builder().mineSweeperId(mineSweeperId).x(x).y(y).build(),
+                CellAction.FLAG);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Tile lastWrittenTile() {
+        ArgumentCaptor<Collection<Tile>> written = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(tileRepository, Mockito.atLeastOnce()).saveAll(written.capture());
+        return written.getValue().iterator().next();
+    }
+
+    private ChunkedMineSweeper storedGame(long version) {
+        return ChunkedMineSweeper.builder().id(mineSweeperId).status(Status.ACTIVE).density(NO_BOMBS).seed(SEED)
+                .version(version).build();
+    }
+
+    private static ChunkedBoard board(Tile tile) {
+        return new ChunkedBoard(SEED, NO_BOMBS, 0, 0, (tileX, tileY) -> tile);
+    }
+}
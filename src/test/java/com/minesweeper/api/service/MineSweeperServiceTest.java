@@ -1,13 +1,25 @@
 package com.minesweeper.api.service;
 
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minesweeper.api.dto.BatchCellRequest;
+import com.minesweeper.api.dto.BatchMoveResponse;
 import com.minesweeper.api.dto.CellRequest;
+import com.minesweeper.api.dto.MineSweeperDelta;
+import com.minesweeper.api.dto.MineSweeperPage;
+import com.minesweeper.api.dto.MineSweeperSummaryPage;
 import com.minesweeper.api.dto.MineSweeperRequest;
+import com.minesweeper.api.dto.MoveOutcome;
 import com.minesweeper.api.model.Cell;
 import com.minesweeper.api.model.CellAction;
 import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.MineSweeperSummary;
 import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.GameConflictException;
 import com.minesweeper.api.model.exception.MinesweeperApiException;
 import com.minesweeper.api.repository.MineSweeperRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -16,8 +28,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,6 +48,9 @@ public class MineSweeperServiceTest {
     @MockBean
     private MineSweeperRepository mineSweeperRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private MineSweeperRequest request;
 
     private MineSweeper mineSweeper;
@@ -102,6 +120,46 @@ public class MineSweeperServiceTest {
         }
     }
 
+    @Test
+    void asyncLoadReadsTheGameOffTheCallingThread() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        AtomicReference<Thread> readBy = new AtomicReference<>();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenAnswer(invocation -> {
+            readBy.set(Thread.currentThread());
+            return Optional.of(mineSweeper);
+        });
+
+        MineSweeper loaded = mineSweeperService.getMineSweeperByIdAsync(mineSweeperId).join();
+
+        // Assertions
+        assertSame(this.mineSweeper, loaded);
+        assertNotSame(Thread.currentThread(), readBy.get());
+        assertTrue(readBy.get().getName().startsWith("dynamodb-io-"));
+    }
+
+    @Test
+    void asyncLoadOfAMissingGameFailsWithMinesweeperApiException() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.empty());
+
+        try {
+            mineSweeperService.getMineSweeperByIdAsync(mineSweeperId).join();
+            // If it gets here, the test need to fail
+            fail();
+        } catch (CompletionException e) {
+            // Assertions
+            assertTrue(e.getCause() instanceof MinesweeperApiException);
+            assertEquals("Minesweeper does not exist", e.getCause().getMessage());
+        }
+    }
+
     @Test
     void pauseActiveGame() {
         // Prepare scenario
@@ -134,6 +192,31 @@ public class MineSweeperServiceTest {
         assertEquals(Status.ACTIVE, gamePaused.getStatus());
     }
 
+    @Test
+    void pauseAndResumeBumpTheVersionOfTheNextDelta() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(cellWitValue.getX())
+                .y(cellWitValue.getY()).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        MineSweeperDelta first = mineSweeperService.cellActionDelta(cellRequest, CellAction.FLAG);
+        long paused = mineSweeperService.pauseResumeMineSweeper(mineSweeperId).getRevision();
+        long resumed = mineSweeperService.pauseResumeMineSweeper(mineSweeperId).getRevision();
+        MineSweeperDelta next = mineSweeperService.cellActionDelta(cellRequest, CellAction.FLAG);
+
+        // Assertions
+        assertEquals(1L, first.getVersion());
+        assertEquals(2L, paused);
+        assertEquals(3L, resumed);
+        assertEquals(4L, next.getVersion());
+        assertEquals(2L, mineSweeper.getMoves());
+    }
+
     @Test
     void pauseAnOverGameThrowsMinesweeperApiException() {
         // Prepare scenario
@@ -187,8 +270,11 @@ public class MineSweeperServiceTest {
         Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
         Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
 
+        MineSweeper mineSweeper = mineSweeperService.cellAction(cellRequest, CellAction.FLAG);
+
         // Assertions
-        assertTrue(mineSweeperService.cellAction(cellRequest, CellAction.FLAG).getCell(0,0).isFlagged());
+        assertTrue(mineSweeper.getCell(0,0).isFlagged());
+        assertEquals(1, mineSweeper.getFlagsPlaced());
     }
 
     @Test
@@ -196,7 +282,7 @@ public class MineSweeperServiceTest {
         // Prepare scenario
         String mineSweeperId = UUID.randomUUID().toString();
         this.mineSweeper.setId(mineSweeperId);
-        this.mineSweeper.getCell(0, 0).flag();
+        this.mineSweeper.flagCell(0, 0);
         CellRequest cellRequest = CellRequest.builder().x(0).y(0).mineSweeperId(mineSweeperId).build();
 
         // Mock responses
@@ -302,6 +388,7 @@ public class MineSweeperServiceTest {
 
         // Assertions
         assertEquals(Status.WIN, finalScore.getStatus());
+        assertEquals(0, finalScore.getHiddenSafeCells());
     }
 
     @Test
@@ -324,4 +411,418 @@ public class MineSweeperServiceTest {
         }
     }
 
+    @Test
+    void clickCellDeltaReturnsOnlyRevealedCells(){
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        // A fixed seed, so the click reveals a region without winning the game
+        MineSweeper seeded = mineSweeperService.generateMineSweeper(MineSweeperRequest.builder().bombs(5)
+                .columns(COLUMNS).rows(ROWS).userId(USER_ID).seed(42L).build());
+        seeded.setId(mineSweeperId);
+        Cell blank = seeded.getCells().stream().filter(c -> !c.isBomb() && c.getValue() == 0).findFirst().orElseThrow();
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(blank.getX()).y(blank.getY()).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(seeded));
+        Mockito.when(mineSweeperRepository.save(eq(seeded))).thenReturn(seeded);
+
+        MineSweeperDelta delta = mineSweeperService.cellActionDelta(cellRequest, CellAction.CLICK);
+
+        // Assertions
+        assertEquals(1L, delta.getVersion());
+        assertEquals(Status.ACTIVE, delta.getStatus());
+        assertTrue(delta.getHiddenSafeCells() > 0);
+        assertEquals(COLUMNS * ROWS - 5 - delta.getHiddenSafeCells(), delta.getCells().size());
+        delta.getCells().forEach(c -> assertTrue(c.isRecognized() && !c.isBomb()));
+    }
+
+    @Test
+    void clickBombDeltaDisclosesAllBombs(){
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(cellWithBomb.getX()).y(cellWithBomb.getY()).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        MineSweeperDelta delta = mineSweeperService.cellActionDelta(cellRequest, CellAction.CLICK);
+
+        // Assertions
+        assertEquals(Status.GAME_OVER, delta.getStatus());
+        assertEquals(5, delta.getCells().stream().filter(Cell::isBomb).count());
+    }
+
+    @Test
+    void chordCellRevealsItsUnflaggedNeighbours(){
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        this.mineSweeper.recognizeCell(cellWitValue.getX(), cellWitValue.getY());
+        this.mineSweeper.getAdjacentCellsStream(cellWitValue).filter(Cell::isBomb)
+                .forEach(c -> this.mineSweeper.flagCell(c.getX(), c.getY()));
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(cellWitValue.getX()).y(cellWitValue.getY()).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        MineSweeperDelta delta = mineSweeperService.cellActionDelta(cellRequest, CellAction.CHORD);
+
+        // Assertions
+        assertNotEquals(Status.GAME_OVER, delta.getStatus());
+        this.mineSweeper.getAdjacentCellsStream(cellWitValue).forEach(c -> assertEquals(!c.isBomb(), c.isRecognized()));
+        assertFalse(delta.getCells().isEmpty());
+        // Bombs are only disclosed when the chord wins the game
+        delta.getCells().stream().filter(c -> !c.isBomb()).forEach(c -> assertTrue(c.isRecognized()));
+    }
+
+    @Test
+    void batchAppliesMovesInOrderWithASingleSave(){
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        BatchCellRequest batchRequest = BatchCellRequest.builder().mineSweeperId(mineSweeperId).moves(List.of(
+                CellRequest.builder().x(cellWithBomb.getX()).y(cellWithBomb.getY()).action(CellAction.FLAG).build(),
+                CellRequest.builder().x(ROWS).y(0).action(CellAction.CLICK).build(),
+                CellRequest.builder().x(cellWitValue.getX()).y(cellWitValue.getY()).action(CellAction.CLICK).build(),
+                CellRequest.builder().x(cellWithBomb.getX()).y(cellWithBomb.getY()).action(CellAction.FLAG).build()))
+                .build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        BatchMoveResponse response = mineSweeperService.cellActions(batchRequest);
+
+        // Assertions
+        assertEquals(4, response.getOutcomes().size());
+        assertEquals(MoveOutcome.Result.APPLIED, response.getOutcomes().get(0).getResult());
+        assertEquals(MoveOutcome.Result.REJECTED, response.getOutcomes().get(1).getResult());
+        assertEquals("Requested cell is out of index", response.getOutcomes().get(1).getMessage());
+        assertEquals(MoveOutcome.Result.APPLIED, response.getOutcomes().get(2).getResult());
+        assertEquals(MoveOutcome.Result.APPLIED, response.getOutcomes().get(3).getResult());
+        assertEquals(3L, response.getDelta().getVersion());
+        assertEquals(0, response.getDelta().getFlagsPlaced());
+        // The bomb was flagged and unflagged, it is sent once
+        assertEquals(2, response.getDelta().getCells().size());
+        Mockito.verify(mineSweeperRepository, Mockito.times(1)).save(any(MineSweeper.class));
+    }
+
+    @Test
+    void batchSkipsTheMovesAfterGameOver(){
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        BatchCellRequest batchRequest = BatchCellRequest.builder().mineSweeperId(mineSweeperId).moves(List.of(
+                CellRequest.builder().x(cellWithBomb.getX()).y(cellWithBomb.getY()).action(CellAction.CLICK).build(),
+                CellRequest.builder().x(cellBlank.getX()).y(cellBlank.getY()).action(CellAction.CLICK).build()))
+                .build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        BatchMoveResponse response = mineSweeperService.cellActions(batchRequest);
+
+        // Assertions
+        assertEquals(Status.GAME_OVER, response.getDelta().getStatus());
+        assertEquals(MoveOutcome.Result.APPLIED, response.getOutcomes().get(0).getResult());
+        assertEquals(MoveOutcome.Result.SKIPPED, response.getOutcomes().get(1).getResult());
+        assertFalse(mineSweeper.getCell(cellBlank.getX(), cellBlank.getY()).isRecognized());
+    }
+
+    @Test
+    void emptyBatchThrowsMinesweeperApiException(){
+        // Prepare scenario
+        BatchCellRequest batchRequest = BatchCellRequest.builder().mineSweeperId("ANY").moves(List.of()).build();
+
+        try {
+            mineSweeperService.cellActions(batchRequest);
+            fail();
+        } catch (MinesweeperApiException e) {
+            // Assertions
+            assertEquals("Invalid request. A batch should have between 1 and 500 moves", e.getMessage());
+        }
+    }
+
+    @Test
+    void eTagIsReadWithoutLoadingTheBoard() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        MineSweeper version = MineSweeper.builder().id(mineSweeperId).version(3L).moves(7L).status(Status.ACTIVE).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findVersionById(eq(mineSweeperId))).thenReturn(Optional.of(version));
+
+        String etag = mineSweeperService.getMineSweeperETag(mineSweeperId);
+
+        // Assertions
+        assertEquals("v3-r0-m7-ACTIVE-0", etag);
+        Mockito.verify(mineSweeperRepository, Mockito.never()).findById(any());
+    }
+
+    @Test
+    void eTagChangesWithEveryMove() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        String before = this.mineSweeper.etag();
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(cellBlank.getX()).y(cellBlank.getY()).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        MineSweeper played = mineSweeperService.cellAction(cellRequest, CellAction.FLAG);
+
+        // Assertions
+        assertNotEquals(before, played.etag());
+    }
+
+    @Test
+    void eTagOfAMissingGameThrowsMinesweeperApiException() {
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findVersionById(eq("MISSING"))).thenReturn(Optional.empty());
+
+        try {
+            mineSweeperService.getMineSweeperETag("MISSING");
+            fail();
+        } catch (MinesweeperApiException e) {
+            // Assertions
+            assertEquals("Minesweeper does not exist", e.getMessage());
+        }
+    }
+
+    @Test
+    void getGamesPageByUserIdQueriesTheUserIndex() {
+        // Mock responses
+        MineSweeperPage page = MineSweeperPage.builder().games(List.of(mineSweeper)).nextCursor("next").build();
+        Mockito.when(mineSweeperRepository.findPageByUserId(eq(USER_ID), eq("cursor"), eq(20))).thenReturn(page);
+
+        // Assertions
+        assertEquals(page, mineSweeperService.getMinesweepersPageByUserId(USER_ID, "cursor", 20));
+    }
+
+    @Test
+    void getGamesPageWithInvalidLimitThrowsMinesweeperApiException() {
+        try {
+            mineSweeperService.getMinesweepersPageByUserId(USER_ID, null, 0);
+            // If it gets here, the test need to fail
+            fail();
+        } catch (MinesweeperApiException e) {
+            // Assertions
+            assertEquals("Invalid request. Page limit should be between 1 and 100", e.getMessage());
+        }
+    }
+
+    @Test
+    void getGameSummariesByUserIdQueriesTheUserIndex() {
+        // Mock responses
+        MineSweeperSummary summary = MineSweeperSummary.builder().id("id").userId(USER_ID).progress(50).build();
+        MineSweeperSummaryPage page = MineSweeperSummaryPage.builder().games(List.of(summary)).build();
+        Mockito.when(mineSweeperRepository.findSummaryPageByUserId(eq(USER_ID), eq(null), eq(10))).thenReturn(page);
+
+        // Assertions
+        assertEquals(page, mineSweeperService.getMinesweeperSummariesByUserId(USER_ID, null, 10));
+    }
+
+    @Test
+    void progressIsThePercentageOfRecognizedSafeCells() {
+        assertEquals(0, mineSweeper.getProgress());
+
+        mineSweeper.recognizeCell(cellWitValue.getX(), cellWitValue.getY());
+
+        // Assertions
+        assertEquals(1, mineSweeper.getProgress());
+    }
+
+    @Test
+    void concurrentUpdateIsRetriedOverAFreshGame() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        CellRequest cellRequest = CellRequest.builder().x(0).y(0).mineSweeperId(mineSweeperId).build();
+        MineSweeper freshGame = mineSweeperService.generateMineSweeper(request);
+        freshGame.setId(mineSweeperId);
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId)))
+                .thenReturn(Optional.of(mineSweeper), Optional.of(freshGame));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenThrow(new ConditionalCheckFailedException("Version"));
+        Mockito.when(mineSweeperRepository.save(eq(freshGame))).thenReturn(freshGame);
+
+        MineSweeper result = mineSweeperService.cellAction(cellRequest, CellAction.FLAG);
+
+        // Assertions
+        assertSame(freshGame, result);
+        assertTrue(result.getCell(0, 0).isFlagged());
+    }
+
+    @Test
+    void concurrentUpdateThrowsGameConflictExceptionWhenRetriesRunOut() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        this.mineSweeper.setId(mineSweeperId);
+        CellRequest cellRequest = CellRequest.builder().x(0).y(0).mineSweeperId(mineSweeperId).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(mineSweeper));
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenThrow(new ConditionalCheckFailedException("Version"));
+
+        try {
+            mineSweeperService.cellAction(cellRequest, CellAction.FLAG);
+            // If it gets here, the test need to fail
+            fail();
+        } catch (GameConflictException e) {
+            // Assertions
+            assertEquals("The game has been modified concurrently, please try again", e.getMessage());
+            Mockito.verify(mineSweeperRepository, Mockito.times(3)).findById(mineSweeperId);
+        }
+    }
+
+    @Test
+    void gamesWithTheSameSeedGetTheSameBoard() {
+        // Prepare scenario
+        MineSweeperRequest seededRequest = MineSweeperRequest.builder().bombs(30).columns(20).rows(15).userId(USER_ID)
+                .seed(1234L).build();
+
+        MineSweeper first = mineSweeperService.generateMineSweeper(seededRequest);
+        MineSweeper second = mineSweeperService.generateMineSweeper(seededRequest);
+
+        // Assertions
+        assertEquals(1234L, first.getSeed());
+        assertEquals(first.getBoard(), second.getBoard());
+        assertNotNull(mineSweeper.getSeed());
+    }
+
+    @Test
+    void lazyGameIsCreatedWithoutBoard() {
+        // Prepare scenario
+        MineSweeperRequest lazyRequest = MineSweeperRequest.builder().bombs(10).columns(COLUMNS).rows(ROWS)
+                .userId(USER_ID).lazy(true).build();
+
+        MineSweeper lazyGame = mineSweeperService.generateMineSweeper(lazyRequest);
+
+        // Assertions
+        assertNull(lazyGame.getBoard());
+        assertNull(lazyGame.getCells());
+        assertTrue(lazyGame.isPendingBombs());
+        assertEquals(COLUMNS * ROWS - 10, lazyGame.getHiddenSafeCells());
+    }
+
+    @Test
+    void firstClickOnALazyGameIsSafe() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        MineSweeperRequest lazyRequest = MineSweeperRequest.builder().bombs(COLUMNS * ROWS - 9).columns(COLUMNS)
+                .rows(ROWS).userId(USER_ID).lazy(true).build();
+        MineSweeper lazyGame = mineSweeperService.generateMineSweeper(lazyRequest);
+        lazyGame.setId(mineSweeperId);
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(5).y(5).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(lazyGame));
+        Mockito.when(mineSweeperRepository.save(eq(lazyGame))).thenReturn(lazyGame);
+
+        MineSweeper mineSweeper = mineSweeperService.cellAction(cellRequest, CellAction.CLICK);
+
+        // Assertions: only the clicked cell and its neighbours are safe, and one click reveals them all
+        assertFalse(mineSweeper.isPendingBombs());
+        assertEquals(COLUMNS * ROWS - 9, mineSweeper.bombsAmount());
+        assertEquals(Status.WIN, mineSweeper.getStatus());
+    }
+
+    @Test
+    void firstClickOnALazyGameRecordsTheGenerationAndTheReveal() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        MineSweeperRequest lazyRequest = MineSweeperRequest.builder().bombs(COLUMNS * ROWS - 9).columns(COLUMNS)
+                .rows(ROWS).userId(USER_ID).lazy(true).build();
+        MineSweeper lazyGame = mineSweeperService.generateMineSweeper(lazyRequest);
+        lazyGame.setId(mineSweeperId);
+        CellRequest cellRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(5).y(5).build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(lazyGame));
+        Mockito.when(mineSweeperRepository.save(eq(lazyGame))).thenReturn(lazyGame);
+
+        try {
+            mineSweeperService.cellAction(cellRequest, CellAction.CLICK);
+
+            // Assertions
+            assertEquals(1, registry.get("minesweeper.board.generation").tag("size", "intermediate").timer().count());
+            assertEquals(1, registry.get("minesweeper.reveal").tags("size", "intermediate", "action", "click")
+                    .timer().count());
+            assertEquals(9, registry.get("minesweeper.reveal.cells").tags("size", "intermediate", "action", "click")
+                    .summary().totalAmount());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    @Test
+    void flaggingALazyGameBeforeTheFirstClickKeepsItsCounters() {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        MineSweeperRequest lazyRequest = MineSweeperRequest.builder().bombs(10).columns(COLUMNS).rows(ROWS)
+                .userId(USER_ID).lazy(true).build();
+        MineSweeper lazyGame = mineSweeperService.generateMineSweeper(lazyRequest);
+        lazyGame.setId(mineSweeperId);
+        CellRequest flagRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(0).y(0).build();
+        CellRequest clickRequest = CellRequest.builder().mineSweeperId(mineSweeperId).x(5).y(5).build();
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(lazyGame));
+        Mockito.when(mineSweeperRepository.save(eq(lazyGame))).thenReturn(lazyGame);
+
+        MineSweeper flagged = mineSweeperService.cellAction(flagRequest, CellAction.FLAG);
+
+        // Assertions
+        assertTrue(flagged.isPendingBombs());
+        assertEquals(1, flagged.getFlagsPlaced());
+        assertEquals(COLUMNS * ROWS - 10, flagged.getHiddenSafeCells());
+        assertEquals(0, flagged.getProgress());
+        assertEquals(10, flagged.bombsAmount());
+
+        MineSweeper clicked = mineSweeperService.cellAction(clickRequest, CellAction.CLICK);
+
+        assertFalse(clicked.isPendingBombs());
+        assertTrue(clicked.getCell(0, 0).isFlagged());
+        assertEquals(10, clicked.bombsAmount());
+        assertEquals(COLUMNS * ROWS - 10 - clicked.getBoard().recognizedCount(), clicked.getHiddenSafeCells());
+        assertTrue(clicked.getProgress() > 0);
+    }
+
+    @Test
+    void savingAGameSentByAClientKeepsItsSeedAndPendingBombs() throws Exception {
+        // Prepare scenario
+        String mineSweeperId = UUID.randomUUID().toString();
+        MineSweeperRequest lazyRequest = MineSweeperRequest.builder().bombs(10).columns(COLUMNS).rows(ROWS)
+                .userId(USER_ID).lazy(true).seed(42L).build();
+        MineSweeper stored = mineSweeperService.generateMineSweeper(lazyRequest);
+        stored.setId(mineSweeperId);
+        // The game as the client sends it back, without the seed it was never given
+        MineSweeper sent = objectMapper.readValue(objectMapper.writeValueAsString(stored), MineSweeper.class);
+        sent.setPendingBombs(false);
+
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeperId))).thenReturn(Optional.of(stored));
+        Mockito.when(mineSweeperRepository.save(any(MineSweeper.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MineSweeper saved = mineSweeperService.saveMineSweeper(sent);
+
+        // Assertions
+        assertNull(sent.getBoard());
+        assertEquals(42L, saved.getSeed());
+        assertTrue(saved.isLazy());
+        assertTrue(saved.isPendingBombs());
+
+        // The first click places the bombs from the stored seed
+        saved.recognizeCell(5, 5);
+        assertEquals(10, saved.bombsAmount());
+    }
 }
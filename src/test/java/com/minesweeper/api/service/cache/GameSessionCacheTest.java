@@ -0,0 +1,168 @@
+package com.minesweeper.api.service.cache;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.repository.MineSweeperRepository;
+import com.minesweeper.api.service.lock.GameLockRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class GameSessionCacheTest {
+
+    private MineSweeperRepository mineSweeperRepository;
+
+    private GameSessionCache gameSessionCache;
+
+    private MineSweeper mineSweeper;
+
+    @BeforeEach
+    public void setup() {
+        mineSweeperRepository = Mockito.mock(MineSweeperRepository.class);
+        gameSessionCache = new GameSessionCache(mineSweeperRepository, new GameLockRegistry(16, false), true, 100, Duration.ofMinutes(10));
+        mineSweeper = MineSweeper.builder().id(UUID.randomUUID().toString()).status(Status.ACTIVE)
+                .rows(5).columns(5).bombs(3).build();
+        mineSweeper.initCells();
+    }
+
+    @Test
+    void loadedGamesAreServedFromTheCache() {
+        // Mock responses
+        Mockito.when(mineSweeperRepository.findById(eq(mineSweeper.getId()))).thenReturn(Optional.of(mineSweeper));
+
+        gameSessionCache.findById(mineSweeper.getId());
+        gameSessionCache.findById(mineSweeper.getId());
+
+        // Assertions
+        Mockito.verify(mineSweeperRepository, Mockito.times(1)).findById(mineSweeper.getId());
+        assertEquals(1, gameSessionCache.getStatistics().getHits());
+        assertEquals(1, gameSessionCache.getStatistics().getMisses());
+    }
+
+    @Test
+    void movesAreCoalescedIntoOneWriteOnFlush() {
+        gameSessionCache.save(mineSweeper);
+        gameSessionCache.save(mineSweeper);
+
+        // Assertions
+        Mockito.verify(mineSweeperRepository, Mockito.never()).save(any(MineSweeper.class));
+        assertEquals(1, gameSessionCache.getStatistics().getDirtyGames());
+
+        gameSessionCache.flush();
+
+        Mockito.verify(mineSweeperRepository, Mockito.times(1)).save(eq(mineSweeper));
+        assertEquals(0, gameSessionCache.getStatistics().getDirtyGames());
+        assertEquals(1, gameSessionCache.getStatistics().getFlushedGames());
+    }
+
+    @Test
+    void finishedGamesAreWrittenStraightAway() {
+        mineSweeper.setStatus(Status.WIN);
+        Mockito.when(mineSweeperRepository.save(eq(mineSweeper))).thenReturn(mineSweeper);
+
+        gameSessionCache.save(mineSweeper);
+
+        // Assertions
+        Mockito.verify(mineSweeperRepository, Mockito.times(1)).save(mineSweeper);
+        assertEquals(0, gameSessionCache.getStatistics().getDirtyGames());
+    }
+
+    @Test
+    void failedWriteOfAFinishedGameKeepsItDirtyAndCached() {
+        mineSweeper.setStatus(Status.GAME_OVER);
+        Mockito.when(mineSweeperRepository.save(any())).thenThrow(new RuntimeException("Throttled"));
+
+        MineSweeper saved = gameSessionCache.save(mineSweeper);
+
+        // Assertions
+        assertSame(mineSweeper, saved);
+        assertEquals(1, gameSessionCache.getStatistics().getFlushFailures());
+        assertEquals(1, gameSessionCache.getStatistics().getDirtyGames());
+        assertSame(mineSweeper, gameSessionCache.findById(mineSweeper.getId()).orElseThrow());
+        Mockito.verify(mineSweeperRepository, Mockito.never()).findById(any());
+
+        // The next flush writes it and releases it
+        Mockito.reset(mineSweeperRepository);
+        gameSessionCache.flush();
+
+        Mockito.verify(mineSweeperRepository, Mockito.times(1)).save(eq(mineSweeper));
+        assertEquals(0, gameSessionCache.getStatistics().getDirtyGames());
+    }
+
+    @Test
+    void failedFlushKeepsGamesDirty() {
+        Mockito.when(mineSweeperRepository.save(any())).thenThrow(new RuntimeException("Throttled"));
+
+        gameSessionCache.save(mineSweeper);
+        gameSessionCache.flush();
+
+        // Assertions
+        assertEquals(1, gameSessionCache.getStatistics().getFlushFailures());
+        assertEquals(1, gameSessionCache.getStatistics().getDirtyGames());
+    }
+
+    @Test
+    void conflictingFlushDropsTheCachedGame() {
+        Mockito.when(mineSweeperRepository.save(any())).thenThrow(new ConditionalCheckFailedException("Version"));
+
+        gameSessionCache.save(mineSweeper);
+        gameSessionCache.flush();
+
+        // Assertions
+        assertEquals(1, gameSessionCache.getStatistics().getFlushConflicts());
+        assertEquals(0, gameSessionCache.getStatistics().getDirtyGames());
+        assertEquals(0, gameSessionCache.getStatistics().getSize());
+    }
+
+    @Test
+    void evictedGamesAreServedUntilTheyAreWritten() {
+        // Prepare scenario
+        Queue<Runnable> pendingTasks = new ArrayDeque<>();
+        // Nothing fits in the cache, and removal notifications wait until the tasks are run
+        GameSessionCache evictingCache = new GameSessionCache(mineSweeperRepository, new GameLockRegistry(16, false),
+                true, 0, Duration.ofMinutes(10), pendingTasks::add);
+
+        evictingCache.save(mineSweeper);
+        // Evicts the game, its removal notification is queued behind
+        runQueued(pendingTasks);
+        assertEquals(0, evictingCache.getStatistics().getSize());
+        assertFalse(pendingTasks.isEmpty());
+
+        // The player keeps playing before the evicted game is written
+        MineSweeper reloaded = evictingCache.findById(mineSweeper.getId()).orElseThrow();
+        reloaded.flagCell(0, 0);
+        evictingCache.save(reloaded);
+        runAll(pendingTasks);
+
+        // Assertions
+        assertSame(mineSweeper, reloaded);
+        Mockito.verify(mineSweeperRepository, Mockito.never()).findById(any());
+        Mockito.verify(mineSweeperRepository, Mockito.atLeastOnce()).save(eq(mineSweeper));
+        assertEquals(1, mineSweeper.getMoves());
+        assertEquals(0, evictingCache.getStatistics().getDirtyGames());
+        assertEquals(0, evictingCache.getStatistics().getFlushFailures());
+    }
+
+    private static void runQueued(final Queue<Runnable> tasks) {
+        for (int queued = tasks.size(); queued > 0; queued--) {
+            tasks.poll().run();
+        }
+    }
+
+    private static void runAll(final Queue<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+}
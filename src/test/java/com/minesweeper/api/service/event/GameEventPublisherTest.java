@@ -0,0 +1,87 @@
+package com.minesweeper.api.service.event;
+
+import com.minesweeper.api.dto.MineSweeperDelta;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameEventPublisherTest {
+
+    // Runs the event deliveries only when the test asks for it
+    private final Queue<Runnable> deliveries = new ArrayDeque<>();
+
+    private final GameEventPublisher publisher = new GameEventPublisher(4, Duration.ofMinutes(1), deliveries::add);
+
+    @Test
+    void deltasAreDeliveredToTheSubscribersOfTheirGame() {
+        publisher.subscribe("game", 0);
+        publisher.subscribe("game", 0);
+        publisher.subscribe("other", 0);
+
+        publisher.publish(delta("game", 1));
+        publisher.publish(delta("game", 2));
+        publisher.publish(delta("unwatched", 1));
+        deliver();
+
+        // Assertions
+        GameEventStatistics statistics = publisher.getStatistics();
+        assertEquals(3, statistics.getSubscribers());
+        assertEquals(2, statistics.getPublished());
+        // A version event per stream, and the deltas of the watched game to both of its subscribers
+        assertEquals(7, statistics.getDelivered());
+        assertEquals(0, statistics.getResyncs());
+    }
+
+    @Test
+    void aSubscriberThatFallsBehindGetsAResync() {
+        publisher.subscribe("game", 0);
+
+        for (int version = 1; version <= 6; version++) {
+            publisher.publish(delta("game", version));
+        }
+        // Only one delivery is scheduled at a time per subscriber
+        assertEquals(1, deliveries.size());
+        deliver();
+
+        // Assertions
+        GameEventStatistics statistics = publisher.getStatistics();
+        assertEquals(1, statistics.getResyncs());
+        // The version event and the deltas that filled the buffer, and the delta that did not fit
+        assertEquals(5, statistics.getDropped());
+        // The resync and the deltas published after it
+        assertEquals(3, statistics.getDelivered());
+    }
+
+    @Test
+    void aStreamOpensWithTheVersionOfTheGame() {
+        publisher.subscribe("game", 7);
+        deliver();
+
+        // Assertions
+        assertEquals(1, publisher.getStatistics().getDelivered());
+        assertEquals(0, publisher.getStatistics().getPublished());
+    }
+
+    @Test
+    void gamesWithoutSubscribersAreNotTracked() {
+        assertFalse(publisher.hasSubscribers("game"));
+        publisher.subscribe("game", 0);
+        assertTrue(publisher.hasSubscribers("game"));
+    }
+
+    private void deliver() {
+        Runnable delivery;
+        while ((delivery = deliveries.poll()) != null) {
+            delivery.run();
+        }
+    }
+
+    private static MineSweeperDelta delta(String mineSweeperId, long version) {
+        return MineSweeperDelta.builder().mineSweeperId(mineSweeperId).version(version).cells(List.of()).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.minesweeper.api.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameLockRegistryTest {
+
+    private int counter;
+
+    @Test
+    void mutationsOnTheSameGameAreSerialized() throws InterruptedException {
+        GameLockRegistry registry = new GameLockRegistry(16, false);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    registry.withLock("game", () -> counter++);
+                }
+                done.countDown();
+            });
+        }
+        done.await(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assertions
+        assertEquals(80000, counter);
+        assertEquals(80000, registry.getStatistics().getAcquisitions());
+    }
+
+    @Test
+    void waitingForABusyGameIsMeasured() throws InterruptedException {
+        GameLockRegistry registry = new GameLockRegistry(16, true);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> registry.withLock("game", () -> {
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        locked.await();
+
+        Thread waiter = new Thread(() -> registry.withLock("game", () -> null));
+        waiter.start();
+        Thread.sleep(50);
+        release.countDown();
+        waiter.join();
+        holder.join();
+
+        // Assertions
+        assertEquals(1, registry.getStatistics().getContendedAcquisitions());
+        assertTrue(registry.getStatistics().getMaxWaitNanos() > 0);
+    }
+}
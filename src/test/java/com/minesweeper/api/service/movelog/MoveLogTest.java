@@ -0,0 +1,188 @@
+package com.minesweeper.api.service.movelog;
+
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import com.minesweeper.api.model.exception.GameConflictException;
+import com.minesweeper.api.repository.GameMoveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class MoveLogTest {
+
+    private static final String GAME_ID = "GAME";
+
+    private GameMoveRepository gameMoveRepository;
+
+    private MoveLog moveLog;
+
+    @BeforeEach
+    public void setup() {
+        gameMoveRepository = Mockito.mock(GameMoveRepository.class);
+        moveLog = new MoveLog(gameMoveRepository, true, 3);
+    }
+
+    @Test
+    void catchUpReplaysTheMovesLoggedAfterTheSnapshot() {
+        // Prepare scenario
+        MineSweeper played = newGame();
+        MineSweeper snapshot = newGame();
+        List<GameMove> moves = List.of(
+                GameMove.builder().gameId(GAME_ID).seq(1).x(4).y(4).action(CellAction.CLICK).build(),
+                GameMove.builder().gameId(GAME_ID).seq(2).x(0).y(0).action(CellAction.FLAG).build());
+        moves.forEach(played::replay);
+
+        // Mock responses
+        Mockito.when(gameMoveRepository.findAfter(eq(GAME_ID), eq(0L))).thenReturn(moves);
+
+        MineSweeper caughtUp = moveLog.catchUp(snapshot);
+
+        // Assertions
+        assertEquals(2L, caughtUp.getMoves());
+        assertEquals(played.getBoard(), caughtUp.getBoard());
+        assertTrue(caughtUp.getCell(0, 0).isFlagged());
+    }
+
+    @Test
+    void catchUpSkipsTheMovesTheSnapshotAlreadyCounts() {
+        // Prepare scenario
+        MineSweeper snapshot = newGame();
+        GameMove flag = GameMove.builder().gameId(GAME_ID).seq(1).x(0).y(0).action(CellAction.FLAG).build();
+        snapshot.replay(flag);
+
+        // Mock responses: the move was logged after the log was read for an older snapshot
+        Mockito.when(gameMoveRepository.findAfter(eq(GAME_ID), anyLong())).thenReturn(List.of(flag));
+
+        MineSweeper caughtUp = moveLog.catchUp(snapshot);
+
+        // Assertions
+        assertEquals(1L, caughtUp.getMoves());
+        assertTrue(caughtUp.getCell(0, 0).isFlagged());
+    }
+
+    @Test
+    void catchUpSkipsTheFenceOfAPausedGame() {
+        // Prepare scenario
+        MineSweeper snapshot = newGame();
+        snapshot.setStatus(Status.PAUSED);
+        GameMove fence = GameMove.builder().gameId(GAME_ID).seq(1).fence(true).build();
+
+        // Mock responses
+        Mockito.when(gameMoveRepository.findAfter(eq(GAME_ID), anyLong())).thenReturn(List.of(fence));
+
+        MineSweeper caughtUp = moveLog.catchUp(snapshot);
+
+        // Assertions
+        assertEquals(0L, caughtUp.getMoves());
+        assertEquals(Status.PAUSED, caughtUp.getStatus());
+    }
+
+    @Test
+    void moveThatCanNotBeReplayedThrowsGameConflictException() {
+        // Prepare scenario
+        MineSweeper snapshot = newGame();
+        snapshot.setStatus(Status.PAUSED);
+
+        // Mock responses
+        Mockito.when(gameMoveRepository.findAfter(eq(GAME_ID), anyLong())).thenReturn(List.of(
+                GameMove.builder().gameId(GAME_ID).seq(1).x(4).y(4).action(CellAction.CLICK).build()));
+
+        try {
+            moveLog.catchUp(snapshot);
+            fail();
+        } catch (GameConflictException e) {
+            // Assertions
+            assertEquals("The game has been modified concurrently, please load it again", e.getMessage());
+        }
+    }
+
+    @Test
+    void pausingFencesTheNextMoveAndResumingRemovesTheFence() {
+        // Prepare scenario
+        MineSweeper mineSweeper = newGame();
+        mineSweeper.setMoves(4);
+
+        mineSweeper.setStatus(Status.PAUSED);
+        moveLog.fence(mineSweeper);
+        moveLog.unfence(mineSweeper);
+        mineSweeper.setStatus(Status.ACTIVE);
+        moveLog.fence(mineSweeper);
+        moveLog.unfence(mineSweeper);
+
+        // Assertions
+        Mockito.verify(gameMoveRepository, Mockito.times(1)).fence(
+                eq(GameMove.builder().gameId(GAME_ID).seq(5).fence(true).build()));
+        Mockito.verify(gameMoveRepository, Mockito.times(1)).removeFence(GAME_ID, 5);
+    }
+
+    @Test
+    void appendAsksForASnapshotEverySnapshotIntervalMoves() {
+        // Prepare scenario
+        MineSweeper mineSweeper = newGame();
+
+        // Assertions
+        mineSweeper.setMoves(1);
+        assertFalse(moveLog.append(mineSweeper, List.of(move(1))));
+        mineSweeper.setMoves(2);
+        assertFalse(moveLog.append(mineSweeper, List.of(move(2))));
+        mineSweeper.setMoves(3);
+        assertTrue(moveLog.append(mineSweeper, List.of(move(3))));
+        // A batch crossing the interval
+        mineSweeper.setMoves(7);
+        assertTrue(moveLog.append(mineSweeper, List.of(move(4), move(5), move(6), move(7))));
+        // Nothing applied, nothing written
+        assertFalse(moveLog.append(mineSweeper, List.of()));
+        Mockito.verify(gameMoveRepository, Mockito.times(7)).append(any(GameMove.class));
+    }
+
+    @Test
+    void appendAsksForASnapshotWhenTheGameEnds() {
+        // Prepare scenario
+        MineSweeper mineSweeper = newGame();
+        mineSweeper.setMoves(1);
+        mineSweeper.setStatus(Status.GAME_OVER);
+
+        // Assertions
+        assertTrue(moveLog.append(mineSweeper, List.of(move(1))));
+    }
+
+    @Test
+    void conflictAfterPartOfABatchWasAppendedThrowsGameConflictException() {
+        // Prepare scenario
+        MineSweeper mineSweeper = newGame();
+        mineSweeper.setMoves(2);
+
+        // Mock responses
+        Mockito.doNothing().doThrow(new ConditionalCheckFailedException("taken"))
+                .when(gameMoveRepository).append(any(GameMove.class));
+
+        try {
+            moveLog.append(mineSweeper, List.of(move(1), move(2)));
+            fail();
+        } catch (GameConflictException e) {
+            // Assertions
+            assertEquals("The game has been modified concurrently, only the first 1 moves were applied", e.getMessage());
+        }
+    }
+
+    private static MineSweeper newGame() {
+        MineSweeper mineSweeper = MineSweeper.builder().id(GAME_ID).status(Status.ACTIVE).rows(9).columns(9).bombs(10)
+                .seed(11L).build();
+        mineSweeper.initLazyCells();
+        return mineSweeper;
+    }
+
+    private static GameMove move(long seq) {
+        return GameMove.builder().gameId(GAME_ID).seq(seq).x(0).y(0).action(CellAction.FLAG).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.minesweeper.api.service.pool;
+
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardPoolTest {
+
+    private BoardPool boardPool;
+
+    @BeforeEach
+    public void setup() {
+        boardPool = new BoardPool(true, 4, List.of("9x9x10"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        boardPool.shutdown();
+    }
+
+    @Test
+    void drainedPoolIsAMissAndGetsRefilled() throws InterruptedException {
+        Optional<MineSweeper> mineSweeper = boardPool.take(9, 9, 10);
+
+        // Assertions
+        assertTrue(mineSweeper.isEmpty());
+        assertEquals(1, boardPool.getStatistics().getMisses());
+        waitForRefills(1);
+        assertEquals(1, boardPool.getStatistics().getAvailable().get("9x9x10"));
+    }
+
+    @Test
+    void filledPoolServesReadyMadeGames() throws InterruptedException {
+        boardPool.fill();
+        waitForAvailable(4);
+
+        MineSweeper mineSweeper = boardPool.take(9, 9, 10).orElseThrow();
+
+        // Assertions
+        assertEquals(Status.ACTIVE, mineSweeper.getStatus());
+        assertEquals(10, mineSweeper.bombsAmount());
+        assertEquals(81, mineSweeper.getCells().size());
+        assertEquals(1, boardPool.getStatistics().getHits());
+    }
+
+    @Test
+    void parametersOutOfThePresetsAreNotPooled() {
+        // Assertions
+        assertTrue(boardPool.take(10, 10, 10).isEmpty());
+        assertEquals(0, boardPool.getStatistics().getMisses());
+    }
+
+    private void waitForRefills(long refills) throws InterruptedException {
+        for (int i = 0; i < 100 && boardPool.getStatistics().getRefills() < refills; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private void waitForAvailable(int available) throws InterruptedException {
+        for (int i = 0; i < 100 && boardPool.getStatistics().getAvailable().get("9x9x10") < available; i++) {
+            Thread.sleep(20);
+        }
+    }
+}
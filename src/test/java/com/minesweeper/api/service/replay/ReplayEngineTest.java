@@ -0,0 +1,109 @@
+package com.minesweeper.api.service.replay;
+
+import com.minesweeper.api.model.Board;
+import com.minesweeper.api.model.CellAction;
+import com.minesweeper.api.model.GameMove;
+import com.minesweeper.api.model.MineSweeper;
+import com.minesweeper.api.model.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayEngineTest {
+
+    private final ReplayEngine replayEngine = new ReplayEngine(4);
+
+    @AfterEach
+    public void tearDown() {
+        replayEngine.shutdown();
+    }
+
+    @Test
+    void recordedGamesAreVerifiedInParallel() {
+        // Prepare scenario
+        List<RecordedGame> games = new ArrayList<>();
+        for (long seed = 0; seed < 500; seed++) {
+            games.add(play(seed, seed % 2 == 0));
+        }
+
+        List<ReplayResult> results = replayEngine.verifyAll(games);
+
+        // Assertions
+        assertEquals(500, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(games.get(i).getGame().getId(), results.get(i).getMineSweeperId());
+            assertTrue(results.get(i).isVerified(), results.get(i).toString());
+        }
+    }
+
+    @Test
+    void cellsRecognizedOutsideOfTheMoveLogAreDetected() {
+        // Prepare scenario
+        RecordedGame recorded = play(7L, true);
+        Board board = recorded.getGame().getBoard();
+        int hidden = 0;
+        while (board.isRecognized(hidden)) {
+            hidden++;
+        }
+        board.recognize(hidden);
+
+        ReplayResult result = ReplayEngine.verify(recorded);
+
+        // Assertions
+        assertFalse(result.isVerified());
+        assertEquals(1, result.getMismatchedCells());
+        assertEquals(result.getExpectedStatus(), result.getReplayedStatus());
+    }
+
+    @Test
+    void gapsInTheMoveLogAreReported() {
+        // Prepare scenario
+        RecordedGame recorded = play(3L, false);
+        recorded.getMoves().remove(0);
+
+        ReplayResult result = ReplayEngine.verify(recorded);
+
+        // Assertions
+        assertFalse(result.isVerified());
+        assertEquals("The move log is missing move 1", result.getMessage());
+    }
+
+    @Test
+    void gamesWithoutSeedCanNotBeVerified() {
+        // Prepare scenario
+        RecordedGame recorded = play(3L, false);
+        recorded.getGame().setSeed(null);
+
+        ReplayResult result = ReplayEngine.verify(recorded);
+
+        // Assertions
+        assertFalse(result.isVerified());
+        assertEquals("The game has no seed", result.getMessage());
+    }
+
+    private static RecordedGame play(long seed, boolean lazy) {
+        MineSweeper game = MineSweeper.builder().id("game-" + seed).status(Status.ACTIVE).rows(16).columns(16)
+                .bombs(40).seed(seed).build();
+        if (lazy) {
+            game.initLazyCells();
+        } else {
+            game.initCells();
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<GameMove> moves = new ArrayList<>();
+        while (game.getStatus().equals(Status.ACTIVE) && moves.size() < 100) {
+            GameMove move = GameMove.builder().gameId(game.getId()).seq(game.getMoves() + 1)
+                    .x(random.nextInt(16)).y(random.nextInt(16))
+                    .action(random.nextInt(5) == 0 ? CellAction.FLAG : CellAction.CLICK).build();
+            game.replay(move);
+            moves.add(move);
+        }
+        return RecordedGame.builder().game(game).moves(moves).build();
+    }
+}